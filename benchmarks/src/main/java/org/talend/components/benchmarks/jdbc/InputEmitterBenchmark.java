@@ -0,0 +1,208 @@
+package org.talend.components.benchmarks.jdbc;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.components.jdbc.DriverInfo;
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.components.jdbc.input.InputEmitter;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+
+/**
+ * Rows read per second by {@link InputEmitter#next()} from an in memory Derby database.
+ * The narrow table has an integer key and a short string, the wide one 40 columns of the usual sql types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class InputEmitterBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    private static final String URL = "jdbc:derby:memory:benchmarks";
+
+    private static final String[] WIDE_TYPES = { "INT", "BIGINT", "DECIMAL(18, 4)", "DOUBLE", "VARCHAR(64)", "DATE",
+            "TIMESTAMP", "BOOLEAN" };
+
+    private static final int WIDE_COLUMNS_BY_TYPE = 5;
+
+    @Param({ "NARROW", "WIDE" })
+    private String table;
+
+    private Connection setupConnection;
+
+    private JdbcService jdbcService;
+
+    private QueryDataset dataset;
+
+    private final JsonBuilderFactory jsonBuilderFactory = Json.createBuilderFactory(Collections.emptyMap());
+
+    private I18nMessage i18n;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        setupConnection = DriverManager.getConnection(URL + ";create=true");
+        try (final Statement statement = setupConnection.createStatement()) {
+            statement.execute("create table NARROW (ID INT PRIMARY KEY, NAME VARCHAR(32))");
+            final StringBuilder wide = new StringBuilder("create table WIDE (ID INT PRIMARY KEY");
+            for (int type = 0; type < WIDE_TYPES.length; type++) {
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    wide.append(", C").append(type).append('_').append(i).append(' ').append(WIDE_TYPES[type]);
+                }
+            }
+            statement.execute(wide.append(')').toString());
+        }
+        fillNarrow();
+        fillWide();
+
+        jdbcService = new EmbeddedJdbcService();
+        i18n = I18nMessage.class.cast(Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { I18nMessage.class }, (proxy, method, args) -> method.getName()));
+        final BasicDatastore datastore = new BasicDatastore();
+        datastore.setDbType("DERBY");
+        datastore.setJdbcUrl(URL);
+        dataset = new QueryDataset();
+        dataset.setConnection(datastore);
+        dataset.setSourceType(QueryDataset.SourceType.TABLE_NAME);
+        dataset.setTableName(table);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (final Statement statement = setupConnection.createStatement()) {
+            statement.execute("drop table NARROW");
+            statement.execute("drop table WIDE");
+        }
+        setupConnection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void next(final Blackhole blackhole) {
+        final InputEmitter emitter = new InputEmitter(dataset, jdbcService, jsonBuilderFactory, i18n);
+        emitter.init();
+        try {
+            JsonObject record;
+            while ((record = emitter.next()) != null) {
+                blackhole.consume(record);
+            }
+        } finally {
+            emitter.close();
+        }
+    }
+
+    private void fillNarrow() throws SQLException {
+        try (final PreparedStatement insert = setupConnection
+                .prepareStatement("insert into NARROW (ID, NAME) values (?, ?)")) {
+            for (int row = 0; row < ROWS; row++) {
+                insert.setInt(1, row);
+                insert.setString(2, "name-" + row);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void fillWide() throws SQLException {
+        final int columns = WIDE_TYPES.length * WIDE_COLUMNS_BY_TYPE;
+        final StringBuilder sql = new StringBuilder("insert into WIDE values (?");
+        for (int i = 0; i < columns; i++) {
+            sql.append(", ?");
+        }
+        try (final PreparedStatement insert = setupConnection.prepareStatement(sql.append(')').toString())) {
+            for (int row = 0; row < ROWS; row++) {
+                insert.setInt(1, row);
+                int index = 2;
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setInt(index++, row + i);
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setLong(index++, row * 1_000_000L + i);
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setBigDecimal(index++, BigDecimal.valueOf(row * 100L + i, 4));
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setDouble(index++, row / (i + 1.5));
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setString(index++, "value " + i + " of row " + row);
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setDate(index++, new Date(row * 86_400_000L));
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setTimestamp(index++, new Timestamp(row * 1_000L + i));
+                }
+                for (int i = 0; i < WIDE_COLUMNS_BY_TYPE; i++) {
+                    insert.setBoolean(index++, (row + i) % 2 == 0);
+                }
+                insert.addBatch();
+                if (row % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Connects to the embedded database without the pool and the driver resolution, they need a component runtime.
+     */
+    private static class EmbeddedJdbcService extends JdbcService {
+
+        private final Map<String, DriverInfo> drivers;
+
+        private EmbeddedJdbcService() {
+            final DriverInfo derby = new DriverInfo();
+            derby.setId("DERBY");
+            derby.setClazz("org.apache.derby.jdbc.EmbeddedDriver");
+            derby.getReadProfile().setFetchSize(1000);
+            drivers = Collections.singletonMap("DERBY", derby);
+        }
+
+        @Override
+        public Map<String, DriverInfo> getDrivers() {
+            return drivers;
+        }
+
+        @Override
+        public Connection connection(final BasicDatastore datastore) throws SQLException {
+            return DriverManager.getConnection(datastore.getJdbcUrl());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.talend.components.benchmarks.salesforce;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.components.salesforce.BulkCsvReader;
+import org.talend.components.salesforce.BulkResultSet;
+
+/**
+ * Rows read per second by {@link BulkResultSet#next()} from a generated bulk query result file.
+ * The columns mix plain, custom and relationship fields, some values are quoted or empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class BulkResultSetBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({ "10", "50" })
+    private int columns;
+
+    private byte[] csv;
+
+    private final JsonBuilderFactory jsonBuilderFactory = Json.createBuilderFactory(Collections.emptyMap());
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final StringBuilder file = new StringBuilder();
+        for (int column = 0; column < columns; column++) {
+            file.append(column == 0 ? "" : ",").append(header(column));
+        }
+        file.append('\n');
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    file.append(',');
+                }
+                switch (column % 4) {
+                case 0:
+                    file.append("\"001D000000Ik").append(row).append('"');
+                    break;
+                case 1:
+                    file.append("\"Name, with a \"\"quote\"\" ").append(row).append('"');
+                    break;
+                case 2:
+                    file.append(row % 3 == 0 ? "" : "\"" + row * 1.5 + '"');
+                    break;
+                default:
+                    file.append("\"2018-06-01T10:15:30.000Z\"");
+                }
+            }
+            file.append('\n');
+        }
+        csv = file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void next(final Blackhole blackhole) throws IOException {
+        final BulkCsvReader reader = new BulkCsvReader(new ByteArrayInputStream(csv));
+        reader.readRecord();
+        final List<String> header = Arrays.asList(reader.getValues());
+        final BulkResultSet resultSet = new BulkResultSet(reader, header, jsonBuilderFactory);
+        JsonObject record;
+        while ((record = resultSet.next()) != null) {
+            blackhole.consume(record);
+        }
+    }
+
+    private static String header(final int column) {
+        switch (column % 3) {
+        case 0:
+            return "Field" + column;
+        case 1:
+            return "Custom_" + column + "__c";
+        default:
+            return "Account.Owner.Field" + column;
+        }
+    }
+}
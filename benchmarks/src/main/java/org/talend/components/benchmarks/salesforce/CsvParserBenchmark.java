@@ -0,0 +1,133 @@
+package org.talend.components.benchmarks.salesforce;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.components.salesforce.BulkCsvReader;
+
+import com.csvreader.CsvReader;
+
+/**
+ * Time to read every value of a generated bulk query result file with javacsv, the reader used before, and with
+ * {@link BulkCsvReader}. The file size is given in MB, run it with {@code -p sizeMb=4096} for a multi GB file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvParserBenchmark {
+
+    private static final int COLUMNS = 20;
+
+    @Param({ "256" })
+    private int sizeMb;
+
+    @Param({ "65536", "1048576" })
+    private int bufferSize;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("bulk-result", ".csv");
+        final long size = sizeMb * 1024L * 1024L;
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int column = 0; column < COLUMNS; column++) {
+                writer.write((column == 0 ? "\"" : ",\"") + "Field" + column + "__c\"");
+            }
+            writer.write('\n');
+            long written = 0;
+            for (long row = 0; written < size; row++) {
+                final StringBuilder line = new StringBuilder(512);
+                for (int column = 0; column < COLUMNS; column++) {
+                    if (column > 0) {
+                        line.append(',');
+                    }
+                    switch (column % 5) {
+                    case 0:
+                        line.append("\"001D000000Ik").append(row).append('"');
+                        break;
+                    case 1:
+                        line.append("\"Société \"\"Générale\"\", ").append(row).append('"');
+                        break;
+                    case 2:
+                        line.append(row % 3 == 0 ? "" : "\"" + row * 1.5 + '"');
+                        break;
+                    case 3:
+                        line.append("\"first line\nsecond line ").append(row).append('"');
+                        break;
+                    default:
+                        line.append("\"2018-06-01T10:15:30.000Z\"");
+                    }
+                }
+                line.append('\n');
+                writer.write(line.toString());
+                written += line.length(); // close enough to the size in bytes
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void javacsv(final Blackhole blackhole) throws IOException {
+        final CsvReader reader = new CsvReader(new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), bufferSize), ',');
+        reader.setSafetySwitch(true);
+        try {
+            while (reader.readRecord()) {
+                blackhole.consume(reader.getValues());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public void bulkCsvReader(final Blackhole blackhole) throws IOException {
+        read(blackhole, false);
+    }
+
+    @Benchmark
+    public void bulkCsvReaderDirectBuffer(final Blackhole blackhole) throws IOException {
+        read(blackhole, true);
+    }
+
+    private void read(final Blackhole blackhole, final boolean direct) throws IOException {
+        try (final BulkCsvReader reader =
+                new BulkCsvReader(FileChannel.open(file, StandardOpenOption.READ), bufferSize, direct)) {
+            while (reader.readRecord()) {
+                for (int i = 0; i < reader.getColumnCount(); i++) {
+                    blackhole.consume(reader.get(i));
+                }
+            }
+        }
+    }
+}
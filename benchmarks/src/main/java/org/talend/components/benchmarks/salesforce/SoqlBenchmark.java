@@ -0,0 +1,80 @@
+package org.talend.components.benchmarks.salesforce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.components.salesforce.soql.FieldDescription;
+import org.talend.components.salesforce.soql.SoqlQuery;
+import org.talend.components.salesforce.soql.SoqlQueryBuilder;
+
+/**
+ * Parsing of a SOQL query, without and with the parse cache, and building of a query from the schema fields, both
+ * done when a module is selected and when the input starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SoqlBenchmark {
+
+    @Param({ "10", "100", "400", "800" })
+    private int fields;
+
+    private List<String> schemaFields;
+
+    private String query;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        schemaFields = new ArrayList<>();
+        final List<String> childFields = new ArrayList<>();
+        for (int i = 0; i < fields; i++) {
+            switch (i % 4) {
+            case 0:
+                schemaFields.add("Field" + i);
+                break;
+            case 1:
+                schemaFields.add("custom_field" + i + "__c");
+                break;
+            case 2:
+                schemaFields.add("Account_Owner_Field" + i);
+                break;
+            default:
+                childFields.add("Contacts_records_Field" + i);
+            }
+        }
+        // the subquery is built where its first field is and the grammar only accepts it after the other fields
+        schemaFields.addAll(childFields);
+        query = new SoqlQueryBuilder(schemaFields, "Account").buildSoqlQuery().replace("\"", "");
+    }
+
+    @Benchmark
+    public List<FieldDescription> parse() {
+        return new SoqlQuery(query).getFieldDescriptions();
+    }
+
+    @Benchmark
+    public List<FieldDescription> parseCached() {
+        return SoqlQuery.parse(query).getFieldDescriptions();
+    }
+
+    @Benchmark
+    public String build() {
+        return new SoqlQueryBuilder(schemaFields, "Account").buildSoqlQuery();
+    }
+}
@@ -0,0 +1,18 @@
+package org.talend.components.jdbc;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * The highest value of an incremental column read by a previous run, with its {@link java.sql.Types sql type}
+ * so that it can be bound back to the next query.
+ */
+@Data
+public class Checkpoint implements Serializable {
+
+    private final String value;
+
+    private final int sqlType;
+
+}
@@ -13,7 +13,9 @@
 package org.talend.components.jdbc;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.json.bind.annotation.JsonbProperty;
 
@@ -34,10 +36,77 @@ public class DriverInfo {
 
     private List<Path> paths = new ArrayList<>();
 
+    /**
+     * driver specific connection properties, like the switches enabling the result streaming
+     */
+    private Map<String, String> properties = new HashMap<>();
+
+    private ReadProfile readProfile = new ReadProfile();
+
+    /**
+     * the native loader of the database, null when the database has no bulk load support
+     */
+    private BulkLoad bulkLoad;
+
     @Data
     public static class Path {
 
         private String path;
     }
 
+    /**
+     * How the query results are read from this database. A null value keeps the driver default.
+     */
+    @Data
+    public static class ReadProfile {
+
+        /**
+         * rows fetched by round trip, {@link Integer#MIN_VALUE} turns on the row by row streaming of MySQL
+         */
+        private Integer fetchSize;
+
+        /**
+         * some drivers, like PostgreSQL, only use a cursor when the auto commit is off
+         */
+        private Boolean autoCommit;
+
+        /**
+         * FORWARD_ONLY, SCROLL_INSENSITIVE or SCROLL_SENSITIVE
+         */
+        private String resultSetType = "FORWARD_ONLY";
+
+        /**
+         * HOLD_CURSORS_OVER_COMMIT or CLOSE_CURSORS_AT_COMMIT
+         */
+        private String holdability;
+    }
+
+    /**
+     * How a staged delimited file is loaded with the native loader of this database.
+     * The statement can use the <code>{table}</code>, <code>{columns}</code> and <code>{file}</code> placeholders.
+     */
+    @Data
+    public static class BulkLoad {
+
+        /**
+         * FILE executes the statement which reads the staged file, COPY streams the file to the PostgreSQL
+         * <code>COPY ... FROM STDIN</code> statement
+         */
+        private String mode = "FILE";
+
+        private String statement;
+
+        private String delimiter = ",";
+
+        /**
+         * the unquoted value written for the null fields, strings are always quoted
+         */
+        private String nullValue = "";
+
+        /**
+         * UPPER or LOWER when the loader expects the table and column names in this case
+         */
+        private String identifierCase;
+    }
+
 }
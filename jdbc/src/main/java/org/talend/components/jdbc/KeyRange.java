@@ -0,0 +1,18 @@
+package org.talend.components.jdbc;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * A range of a numeric split column, the lower bound is inclusive and the upper one exclusive.
+ * A null bound means the range is open on that side.
+ */
+@Data
+public class KeyRange implements Serializable {
+
+    private final Long lowerBound;
+
+    private final Long upperBound;
+
+}
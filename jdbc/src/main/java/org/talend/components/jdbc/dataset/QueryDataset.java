@@ -5,6 +5,7 @@ import java.io.Serializable;
 import org.talend.components.jdbc.datastore.BasicDatastore;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.constraint.Required;
 import org.talend.sdk.component.api.configuration.type.DataSet;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
@@ -18,6 +19,9 @@ import lombok.Data;
         @GridLayout.Row("sourceType"),
         @GridLayout.Row("tableName"),
         @GridLayout.Row("sqlQuery"),
+        @GridLayout.Row({ "fetchSize", "prefetchSize" }),
+        @GridLayout.Row("incremental"),
+        @GridLayout.Row({ "incrementalColumn", "checkpointName" }),
 })
 @DataSet("query.selectonly")
 @Documentation("A read only query to a database")
@@ -45,6 +49,44 @@ public class QueryDataset implements Serializable {
     @Documentation("A valid read only query is the source type is Query")
     private String sqlQuery;
 
+    @Option
+    @Min(0)
+    @Documentation("The number of rows fetched by round trip to the database, 0 uses the database type default")
+    private int fetchSize;
+
+    @Option
+    @Min(0)
+    @Documentation("The number of rows read ahead by a background thread while the previous ones are processed, "
+            + "0 reads the rows on demand")
+    private int prefetchSize;
+
+    @Option
+    @Documentation("Read only the rows having an incremental column value greater than the one saved by the "
+            + "previous run")
+    private boolean incremental;
+
+    @Option
+    @ActiveIf(target = "incremental", value = "true")
+    @Documentation("A column whose value only grows with the new rows, like a sequence or a modification timestamp")
+    private String incrementalColumn;
+
+    @Option
+    @ActiveIf(target = "incremental", value = "true")
+    @Documentation("The name under which the highest value read is saved for the next run")
+    private String checkpointName;
+
+    /**
+     * @return the dataset reading the whole table
+     */
+    public static QueryDataset ofTable(final BasicDatastore connection, final String tableName, final int fetchSize) {
+        final QueryDataset dataset = new QueryDataset();
+        dataset.setConnection(connection);
+        dataset.setSourceType(SourceType.TABLE_NAME);
+        dataset.setTableName(tableName);
+        dataset.setFetchSize(fetchSize);
+        return dataset;
+    }
+
     public enum SourceType {
         TABLE_NAME,
         QUERY
@@ -0,0 +1,186 @@
+package org.talend.components.jdbc.input;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * The conversion plan of a query result. It is built once from the result set metadata and holds, for each column,
+ * its name and a reader using the typed getter matching the column sql type.
+ */
+public class ColumnPlan {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    /**
+     * milliseconds, and the sub millisecond digits of the databases keeping them so that a timestamp read back with
+     * {@link Timestamp#valueOf(String)}, like an incremental checkpoint, is the one of the row
+     */
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .appendFraction(ChronoField.NANO_OF_SECOND, 3, 9, true)
+            .toFormatter();
+
+    private static final ColumnReader INT_READER = (resultSet, index, name, builder) -> {
+        final int value = resultSet.getInt(index);
+        if (resultSet.wasNull()) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    };
+
+    private static final ColumnReader LONG_READER = (resultSet, index, name, builder) -> {
+        final long value = resultSet.getLong(index);
+        if (resultSet.wasNull()) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    };
+
+    private static final ColumnReader DOUBLE_READER = (resultSet, index, name, builder) -> {
+        final double value = resultSet.getDouble(index);
+        if (resultSet.wasNull()) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    };
+
+    private static final ColumnReader DECIMAL_READER = (resultSet, index, name, builder) -> {
+        final BigDecimal value = resultSet.getBigDecimal(index);
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    };
+
+    private static final ColumnReader BOOLEAN_READER = (resultSet, index, name, builder) -> {
+        final boolean value = resultSet.getBoolean(index);
+        if (resultSet.wasNull()) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    };
+
+    private static final ColumnReader DATE_READER = (resultSet, index, name, builder) -> {
+        final Date value = resultSet.getDate(index);
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value.toLocalDate().toString());
+        }
+    };
+
+    private static final ColumnReader TIME_READER = (resultSet, index, name, builder) -> {
+        final Time value = resultSet.getTime(index);
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, TIME_FORMAT.format(value.toLocalTime()));
+        }
+    };
+
+    private static final ColumnReader TIMESTAMP_READER = (resultSet, index, name, builder) -> {
+        final Timestamp value = resultSet.getTimestamp(index);
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, TIMESTAMP_FORMAT.format(value.toLocalDateTime()));
+        }
+    };
+
+    private static final ColumnReader STRING_READER = (resultSet, index, name, builder) -> {
+        final String value = resultSet.getString(index);
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    };
+
+    private final String[] names;
+
+    private final ColumnReader[] readers;
+
+    private ColumnPlan(final String[] names, final ColumnReader[] readers) {
+        this.names = names;
+        this.readers = readers;
+    }
+
+    public static ColumnPlan of(final ResultSetMetaData metaData) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        final String[] names = new String[columnCount];
+        final ColumnReader[] readers = new ColumnReader[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = metaData.getColumnName(i + 1).intern();
+            readers[i] = reader(metaData.getColumnType(i + 1));
+        }
+        return new ColumnPlan(names, readers);
+    }
+
+    /**
+     * Convert the current row of the result set
+     */
+    public JsonObject read(final ResultSet resultSet, final JsonBuilderFactory jsonBuilderFactory)
+            throws SQLException {
+        final JsonObjectBuilder builder = jsonBuilderFactory.createObjectBuilder();
+        for (int i = 0; i < readers.length; i++) {
+            readers[i].read(resultSet, i + 1, names[i], builder);
+        }
+        return builder.build();
+    }
+
+    private static ColumnReader reader(final int sqlType) {
+        switch (sqlType) {
+        case Types.INTEGER:
+        case Types.SMALLINT:
+        case Types.TINYINT:
+            return INT_READER;
+        case Types.BIGINT:
+            return LONG_READER;
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            return DECIMAL_READER;
+        case Types.DOUBLE:
+        case Types.FLOAT:
+        case Types.REAL:
+            return DOUBLE_READER;
+        case Types.BOOLEAN:
+        case Types.BIT:
+            return BOOLEAN_READER;
+        case Types.DATE:
+            return DATE_READER;
+        case Types.TIME:
+            return TIME_READER;
+        case Types.TIMESTAMP:
+            return TIMESTAMP_READER;
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.CHAR:
+        default:
+            return STRING_READER;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+
+        void read(ResultSet resultSet, int index, String name, JsonObjectBuilder builder) throws SQLException;
+    }
+}
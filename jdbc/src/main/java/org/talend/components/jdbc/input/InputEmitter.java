@@ -1,24 +1,22 @@
 package org.talend.components.jdbc.input;
 
 import java.io.Serializable;
-import java.lang.reflect.Method;
-import java.net.URLClassLoader;
 import java.sql.Connection;
-import java.sql.Driver;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Properties;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.json.JsonBuilderFactory;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
 
+import org.talend.components.jdbc.Checkpoint;
 import org.talend.components.jdbc.DriverInfo;
+import org.talend.components.jdbc.KeyRange;
 import org.talend.components.jdbc.dataset.QueryDataset;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
@@ -46,22 +44,46 @@ public class InputEmitter implements Serializable {
 
     private final I18nMessage i18n;
 
-    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private Connection connection;
 
-    private final DateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+    private PreparedStatement statement;
 
-    private final DateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private ResultSet resultSet;
 
-    private Connection connection;
+    private ColumnPlan columnPlan;
 
-    private Statement statement;
+    /**
+     * The split column and the key range to read when this emitter is created by {@link PartitionedInputMapper}
+     */
+    private final String splitColumn;
 
-    private ResultSet resultSet;
+    private final KeyRange range;
+
+    /**
+     * The record field and the type of the incremental column with the last value returned, the rows being ordered
+     * on this column it is the highest one. The value is taken from the returned records so that the rows read
+     * ahead but not consumed are read again by the next run
+     */
+    private String incrementalField;
+
+    private int incrementalType;
+
+    private String lastIncrementalValue;
+
+    private ReadAheadBuffer readAhead;
 
     public InputEmitter(@Option("configuration") final QueryDataset queryDataSet,
             final JdbcService jdbcDriversService, final JsonBuilderFactory jsonBuilderFactory,
             final I18nMessage i18nMessage) {
+        this(queryDataSet, null, null, jdbcDriversService, jsonBuilderFactory, i18nMessage);
+    }
+
+    InputEmitter(final QueryDataset queryDataSet, final String splitColumn, final KeyRange range,
+            final JdbcService jdbcDriversService, final JsonBuilderFactory jsonBuilderFactory,
+            final I18nMessage i18nMessage) {
         this.queryDataset = queryDataSet;
+        this.splitColumn = splitColumn;
+        this.range = range;
         this.jsonBuilderFactory = jsonBuilderFactory;
         this.jdbcDriversService = jdbcDriversService;
         this.i18n = i18nMessage;
@@ -69,112 +91,102 @@ public class InputEmitter implements Serializable {
 
     @PostConstruct
     public void init() {
-        final String query = jdbcDriversService.createQuery(queryDataset);
+        final Checkpoint checkpoint = isIncremental()
+                ? jdbcDriversService.getCheckpointStore().load(checkpointName()) : null;
+        final String query;
+        if (range != null) {
+            query = jdbcDriversService.createRangeQuery(queryDataset, splitColumn, range);
+        } else if (isIncremental()) {
+            query = jdbcDriversService.createIncrementalQuery(queryDataset, checkpoint);
+        } else {
+            query = jdbcDriversService.createQuery(queryDataset);
+        }
         final String dbType = queryDataset.getConnection().getDbType();
         final DriverInfo driverInfo = jdbcDriversService.getDrivers().get(dbType);
         if (driverInfo == null) {
             throw new IllegalStateException(i18n.errorDriverNotFound(dbType));
         }
-        final URLClassLoader driverLoader = jdbcDriversService.getDriverClassLoader(driverInfo.getId());
-        if (driverLoader == null) {
-            throw new IllegalStateException(i18n.errorCantLoadDriver(dbType));
-        }
 
         try {
-            final Driver driverInstance = (Driver) driverLoader.loadClass(driverInfo.getClazz()).newInstance();
-            if (!driverInstance.acceptsURL(queryDataset.getConnection().getJdbcUrl())) {
-                throw new IllegalStateException(i18n.errorUnsupportedSubProtocol());
-            }
-            final Properties info = new Properties() {{
-                setProperty("user", queryDataset.getConnection().getUserId());
-                setProperty("password", queryDataset.getConnection().getPassword());
-            }};
-            try {
-                connection = driverInstance.connect(queryDataset.getConnection().getJdbcUrl(), info);
-                connection.setReadOnly(true);
-                if (!connection.isValid(30)) {
-                    throw new IllegalStateException(i18n.errorInvalidConnection());
+            connection = jdbcDriversService.connection(queryDataset.getConnection());
+            connection.setReadOnly(true);
+            statement = jdbcDriversService.prepareReadStatement(connection, driverInfo, query,
+                    queryDataset.getFetchSize());
+            if (range != null) {
+                int index = 1;
+                if (range.getLowerBound() != null) {
+                    statement.setLong(index++, range.getLowerBound());
+                }
+                if (range.getUpperBound() != null) {
+                    statement.setLong(index, range.getUpperBound());
                 }
-                if (driverInfo.getClazz() != null && driverInfo.getClazz().toLowerCase().contains("mysql")) {
-                    statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-                    final Class<?> clazz = statement.getClass();
-                    try {
-                        Method method = clazz.getMethod("enableStreamingResults");
-                        if (method != null) {  // have to use reflect here
-                            method.invoke(statement);
-                        }
-                    } catch (Exception e) { // ignore anything
+            }
+            if (checkpoint != null) {
+                jdbcDriversService.setCheckpointParameter(statement, 1, checkpoint);
+            }
+            resultSet = statement.executeQuery();
+            columnPlan = ColumnPlan.of(resultSet.getMetaData());
+            if (isIncremental()) {
+                final ResultSetMetaData metaData = resultSet.getMetaData();
+                for (int i = 1; i <= metaData.getColumnCount() && incrementalField == null; i++) {
+                    if (metaData.getColumnName(i).equalsIgnoreCase(queryDataset.getIncrementalColumn().trim())) {
+                        incrementalField = metaData.getColumnName(i);
+                        incrementalType = metaData.getColumnType(i);
                     }
-                } else {
-                    statement = connection.createStatement();
                 }
-                resultSet = statement.executeQuery(query);
-            } catch (SQLException e) {
-                throw new IllegalStateException(e);
+                if (incrementalField == null) {
+                    throw new IllegalStateException(
+                            i18n.errorIncrementalColumnNotFound(queryDataset.getIncrementalColumn()));
+                }
             }
-        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
-            throw new IllegalStateException(i18n.errorCantLoadDriver(dbType));
         } catch (SQLException e) {
-            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()));
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
         }
 
+        if (queryDataset.getPrefetchSize() > 0) {
+            readAhead = new ReadAheadBuffer(queryDataset.getPrefetchSize(), this::readRow, dbType);
+            readAhead.start();
+        }
     }
 
     @Producer
     public JsonObject next() {
-
-        try {
-            final boolean hasNext = resultSet.next();
-            if (hasNext) {
-                JsonObjectBuilder recordBuilder = jsonBuilderFactory.createObjectBuilder();
-                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
-                    final String name = resultSet.getMetaData().getColumnName(i);
-                    final int type = resultSet.getMetaData().getColumnType(i);
-                    final Object value = resultSet.getObject(i);
-                    recordBuilder = addColumn(recordBuilder, name, type, value);
-                }
-                return recordBuilder.build();
+        final JsonObject record;
+        if (readAhead != null) {
+            record = readAhead.next();
+        } else {
+            try {
+                record = readRow();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
             }
-
-            return null;
-        } catch (SQLException e) {
-            throw new IllegalStateException(e);
         }
-    }
-
-    private JsonObjectBuilder addColumn(final JsonObjectBuilder builder, final String name, final int sqlType,
-            final Object value) {
-        switch (sqlType) {
-        case java.sql.Types.INTEGER:
-        case java.sql.Types.SMALLINT:
-        case java.sql.Types.TINYINT:
-            return builder.add(name, Integer.class.cast(value));
-        case java.sql.Types.BIGINT:
-            return builder.add(name, Long.class.cast(value));
-        case java.sql.Types.DECIMAL:
-        case java.sql.Types.NUMERIC:
-        case java.sql.Types.DOUBLE:
-        case java.sql.Types.FLOAT:
-        case java.sql.Types.REAL:
-            return builder.add(name, Double.class.cast(value));
-        case java.sql.Types.BOOLEAN:
-            return builder.add(name, Boolean.class.cast(value));
-        case java.sql.Types.DATE:
-            return builder.add(name, dateFormat.format(String.class.cast(value)));
-        case java.sql.Types.TIME:
-            return builder.add(name, timeFormat.format(String.class.cast(value)));
-        case java.sql.Types.TIMESTAMP:
-            return builder.add(name, timestampFormat.format(String.class.cast(value)));
-        case java.sql.Types.VARCHAR:
-        case java.sql.Types.LONGVARCHAR:
-        case java.sql.Types.CHAR:
-        default:
-            return builder.add(name, String.class.cast(value));
+        if (record != null && incrementalField != null) {
+            final JsonValue value = record.get(incrementalField);
+            if (value != null && value.getValueType() != JsonValue.ValueType.NULL) {
+                lastIncrementalValue = value.getValueType() == JsonValue.ValueType.STRING
+                        ? JsonString.class.cast(value).getString() : value.toString();
+            }
         }
+        return record;
     }
 
     @PreDestroy
     public void close() {
+        if (readAhead != null) {
+            if (readAhead.isReading() && statement != null) {
+                try { // releases a reader waiting for the database
+                    statement.cancel();
+                } catch (SQLException e) {
+                    log.debug("Query can't be cancelled", e);
+                }
+            }
+            readAhead.close();
+        }
+        if (lastIncrementalValue != null) {
+            jdbcDriversService.getCheckpointStore()
+                    .save(checkpointName(), new Checkpoint(lastIncrementalValue, incrementalType));
+        }
         if (resultSet != null) {
             try {
                 resultSet.close();
@@ -191,10 +203,28 @@ public class InputEmitter implements Serializable {
         }
         if (connection != null) {
             try {
+                if (!connection.getAutoCommit()) { // end the read transaction opened by the read profile
+                    connection.commit();
+                }
                 connection.close();
             } catch (SQLException e) {
                 log.warn(i18n.warnConnectionCantBeClosed(), e);
             }
         }
     }
+
+    private JsonObject readRow() throws SQLException {
+        return resultSet.next() ? columnPlan.read(resultSet, jsonBuilderFactory) : null;
+    }
+
+    private boolean isIncremental() {
+        return range == null && queryDataset.isIncremental();
+    }
+
+    private String checkpointName() {
+        if (queryDataset.getCheckpointName() == null || queryDataset.getCheckpointName().trim().isEmpty()) {
+            throw new IllegalStateException(i18n.errorEmptyCheckpointName());
+        }
+        return queryDataset.getCheckpointName().trim();
+    }
 }
@@ -0,0 +1,66 @@
+package org.talend.components.jdbc.input;
+
+import java.io.Serializable;
+
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.constraint.Required;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.Data;
+
+@Data
+@GridLayout({
+        @GridLayout.Row("connection"),
+        @GridLayout.Row({ "tableName", "fetchSize" }),
+        @GridLayout.Row({ "keyColumn", "pageSize" }),
+        @GridLayout.Row({ "maxRetries", "checkpointName" }),
+})
+@Documentation("A table read by pages ordered on a unique key")
+public class KeysetInputConfiguration implements Serializable {
+
+    @Option
+    @Required
+    @Documentation("the connection information to the database")
+    private BasicDatastore connection;
+
+    @Option
+    @Required
+    @Documentation("The table to read")
+    private String tableName;
+
+    @Option
+    @Min(0)
+    @Documentation("The number of rows fetched by round trip to the database, 0 uses the database type default")
+    private int fetchSize;
+
+    @Option
+    @Documentation("A unique and indexed column ordering the pages, the primary key of the table when empty")
+    private String keyColumn;
+
+    @Option
+    @Min(1)
+    @Documentation("The maximum number of rows of each page")
+    private int pageSize = 10000;
+
+    @Option
+    @Min(0)
+    @Documentation("The number of times a page is read again from the last key after a transient error")
+    private int maxRetries = 3;
+
+    @Option
+    @Documentation("The name under which the last key read is saved when the read fails, the next run resumes after "
+            + "this key. Nothing is saved when empty")
+    private String checkpointName;
+
+    /**
+     * @return the table read, as the dataset of the query input
+     */
+    public QueryDataset getDataset() {
+        return QueryDataset.ofTable(connection, tableName, fetchSize);
+    }
+
+}
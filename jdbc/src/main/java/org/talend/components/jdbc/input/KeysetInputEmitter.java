@@ -0,0 +1,267 @@
+package org.talend.components.jdbc.input;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.talend.components.jdbc.Checkpoint;
+import org.talend.components.jdbc.DriverInfo;
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.Producer;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read a table by pages of {@link KeysetInputConfiguration#getPageSize()} rows ordered on a unique key, each page
+ * starting after the last key of the previous one. Short queries don't hold a cursor open for the whole read and,
+ * after a transient error, the read is resumed from the last key with a new connection.
+ * When the read fails the last key is saved with the checkpoint name so that the next run continues after it.
+ */
+@Slf4j
+@Version
+@Icon(value = Icon.IconType.CUSTOM, custom = "JDBCInput")
+@Emitter(name = "KeysetInput")
+@Documentation("JDBC table input reading the table by pages ordered on its key")
+public class KeysetInputEmitter implements Serializable {
+
+    private final KeysetInputConfiguration configuration;
+
+    private final JdbcService jdbcDriversService;
+
+    private final JsonBuilderFactory jsonBuilderFactory;
+
+    private final I18nMessage i18n;
+
+    private QueryDataset dataset;
+
+    private DriverInfo driverInfo;
+
+    private String keyColumn;
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    private ResultSet resultSet;
+
+    private ColumnPlan columnPlan;
+
+    private int keyIndex;
+
+    private int keyType;
+
+    /**
+     * the key of the last record returned, null until a row is read
+     */
+    private Object lastKey;
+
+    /**
+     * the key saved by a previous failed run
+     */
+    private Checkpoint resumeKey;
+
+    private int pageRows;
+
+    private int retries;
+
+    private boolean done;
+
+    public KeysetInputEmitter(@Option("configuration") final KeysetInputConfiguration configuration,
+            final JdbcService jdbcDriversService, final JsonBuilderFactory jsonBuilderFactory,
+            final I18nMessage i18nMessage) {
+        this.configuration = configuration;
+        this.jdbcDriversService = jdbcDriversService;
+        this.jsonBuilderFactory = jsonBuilderFactory;
+        this.i18n = i18nMessage;
+    }
+
+    @PostConstruct
+    public void init() {
+        dataset = configuration.getDataset();
+        driverInfo = jdbcDriversService.getDrivers().get(dataset.getConnection().getDbType());
+        if (driverInfo == null) {
+            throw new IllegalStateException(i18n.errorDriverNotFound(dataset.getConnection().getDbType()));
+        }
+        if (hasCheckpoint()) {
+            resumeKey = jdbcDriversService.getCheckpointStore().load(configuration.getCheckpointName().trim());
+        }
+        try {
+            connect();
+            keyColumn = configuration.getKeyColumn() == null || configuration.getKeyColumn().trim().isEmpty()
+                    ? jdbcDriversService.findPrimaryKey(connection, dataset.getTableName())
+                    : configuration.getKeyColumn().trim();
+            openPage();
+        } catch (SQLException e) {
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        }
+    }
+
+    @Producer
+    public JsonObject next() {
+        while (!done) {
+            try {
+                if (resultSet == null) {
+                    openPage();
+                }
+                if (resultSet.next()) {
+                    final JsonObject record = columnPlan.read(resultSet, jsonBuilderFactory);
+                    lastKey = resultSet.getObject(keyIndex);
+                    pageRows++;
+                    return record;
+                }
+                closePage();
+                if (!connection.getAutoCommit()) { // don't keep a snapshot open between two pages
+                    connection.commit();
+                }
+                // a page shorter than the page size is the last one
+                done = pageRows < configuration.getPageSize();
+                pageRows = 0;
+                retries = 0;
+            } catch (SQLException e) {
+                retry(e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the key of the last record read, or the resumed one if no record was read yet
+     */
+    public Checkpoint getLastKey() {
+        return lastKey == null ? resumeKey : new Checkpoint(lastKey.toString(), keyType);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (hasCheckpoint()) {
+            final String name = configuration.getCheckpointName().trim();
+            if (done) {
+                jdbcDriversService.getCheckpointStore().remove(name);
+            } else if (getLastKey() != null) {
+                log.info("Table {} read up to key {}, the next run resumes after it", configuration.getTableName(),
+                        getLastKey().getValue());
+                jdbcDriversService.getCheckpointStore().save(name, getLastKey());
+            }
+        }
+        closePage();
+        if (connection != null) {
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                connection.close();
+            } catch (SQLException e) {
+                log.warn(i18n.warnConnectionCantBeClosed(), e);
+            }
+        }
+    }
+
+    private void connect() throws SQLException {
+        connection = jdbcDriversService.connection(dataset.getConnection());
+        connection.setReadOnly(true);
+    }
+
+    private void openPage() throws SQLException {
+        if (connection == null) {
+            connect();
+        }
+        final boolean afterKey = lastKey != null || resumeKey != null;
+        statement = jdbcDriversService.prepareReadStatement(connection, driverInfo,
+                jdbcDriversService.createPageQuery(dataset, keyColumn, afterKey),
+                Math.min(dataset.getFetchSize(), configuration.getPageSize()));
+        statement.setMaxRows(configuration.getPageSize());
+        if (lastKey != null) {
+            statement.setObject(1, lastKey);
+        } else if (resumeKey != null) {
+            jdbcDriversService.setCheckpointParameter(statement, 1, resumeKey);
+        }
+        resultSet = statement.executeQuery();
+        if (columnPlan == null) {
+            final ResultSetMetaData metaData = resultSet.getMetaData();
+            columnPlan = ColumnPlan.of(metaData);
+            for (int i = 1; i <= metaData.getColumnCount() && keyIndex == 0; i++) {
+                if (metaData.getColumnLabel(i).equalsIgnoreCase(keyColumn)) {
+                    keyIndex = i;
+                    keyType = metaData.getColumnType(i);
+                }
+            }
+            if (keyIndex == 0) {
+                throw new IllegalStateException(i18n.errorKeyColumnNotFound(keyColumn, configuration.getTableName()));
+            }
+        }
+    }
+
+    /**
+     * Drop the connection and read the page again from the last key, the records already returned are not read
+     * twice.
+     */
+    private void retry(final SQLException e) {
+        if (!isTransient(e) || retries >= configuration.getMaxRetries()) {
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        }
+        retries++;
+        log.warn(i18n.warnPageRetry(retries, configuration.getMaxRetries(), e.getMessage()));
+        closePage();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException closeError) {
+                log.debug(closeError.getMessage(), closeError);
+            }
+            connection = null;
+        }
+        pageRows = 0;
+        try {
+            TimeUnit.SECONDS.sleep(retries);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ie);
+        }
+    }
+
+    private boolean isTransient(final SQLException e) {
+        return SQLTransientException.class.isInstance(e) || SQLRecoverableException.class.isInstance(e)
+                || (e.getSQLState() != null && e.getSQLState().startsWith("08")); // connection exception
+    }
+
+    private boolean hasCheckpoint() {
+        return configuration.getCheckpointName() != null && !configuration.getCheckpointName().trim().isEmpty();
+    }
+
+    private void closePage() {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                log.warn(i18n.warnResultSetCantBeClosed(), e);
+            }
+            resultSet = null;
+        }
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.warn(i18n.warnStatementCantBeClosed(), e);
+            }
+            statement = null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.talend.components.jdbc.input;
+
+import java.io.Serializable;
+
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.constraint.Required;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.Data;
+
+@Data
+@GridLayout({
+        @GridLayout.Row("connection"),
+        @GridLayout.Row({ "tableName", "fetchSize" }),
+        @GridLayout.Row("splitColumn"),
+        @GridLayout.Row("partitionCount"),
+})
+@Documentation("A table read split on the key ranges of a numeric column")
+public class PartitionedInputConfiguration implements Serializable {
+
+    @Option
+    @Required
+    @Documentation("the connection information to the database")
+    private BasicDatastore connection;
+
+    @Option
+    @Required
+    @Documentation("The table to read")
+    private String tableName;
+
+    @Option
+    @Min(0)
+    @Documentation("The number of rows fetched by round trip to the database, 0 uses the database type default")
+    private int fetchSize;
+
+    @Option
+    @Required
+    @Documentation("A numeric column used to split the table in key ranges, an indexed column like the primary key "
+            + "is recommended")
+    private String splitColumn;
+
+    @Option
+    @Min(1)
+    @Documentation("The number of key ranges the table is split in")
+    private int partitionCount = 4;
+
+    /**
+     * @return the table read, as the dataset of the query input
+     */
+    public QueryDataset getDataset() {
+        return QueryDataset.ofTable(connection, tableName, fetchSize);
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.talend.components.jdbc.input;
+
+import static java.util.Collections.singletonList;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonBuilderFactory;
+
+import org.talend.components.jdbc.KeyRange;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Assessor;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.PartitionMapper;
+import org.talend.sdk.component.api.input.PartitionSize;
+import org.talend.sdk.component.api.input.Split;
+import org.talend.sdk.component.api.meta.Documentation;
+
+/**
+ * Read a table in parallel. The range between the lowest and the highest value of the split column is cut in
+ * {@link PartitionedInputConfiguration#getPartitionCount()} key ranges, each one read by its own {@link InputEmitter}.
+ */
+@Version
+@Icon(value = Icon.IconType.CUSTOM, custom = "JDBCInput")
+@PartitionMapper(name = "PartitionedInput")
+@Documentation("JDBC table input reading key ranges of the table in parallel")
+public class PartitionedInputMapper implements Serializable {
+
+    private final PartitionedInputConfiguration configuration;
+
+    private final JdbcService jdbcDriversService;
+
+    private final JsonBuilderFactory jsonBuilderFactory;
+
+    private final I18nMessage i18n;
+
+    /**
+     * The key range read by this mapper, null until the mapper is split
+     */
+    private final KeyRange range;
+
+    public PartitionedInputMapper(@Option("configuration") final PartitionedInputConfiguration configuration,
+            final JdbcService jdbcDriversService, final JsonBuilderFactory jsonBuilderFactory,
+            final I18nMessage i18nMessage) {
+        this(configuration, null, jdbcDriversService, jsonBuilderFactory, i18nMessage);
+    }
+
+    private PartitionedInputMapper(final PartitionedInputConfiguration configuration, final KeyRange range,
+            final JdbcService jdbcDriversService, final JsonBuilderFactory jsonBuilderFactory,
+            final I18nMessage i18nMessage) {
+        this.configuration = configuration;
+        this.range = range;
+        this.jdbcDriversService = jdbcDriversService;
+        this.jsonBuilderFactory = jsonBuilderFactory;
+        this.i18n = i18nMessage;
+    }
+
+    /**
+     * @return the width of the key range to read, used by the runner to compare the partitions.
+     */
+    @Assessor
+    public long estimateSize() {
+        final BigInteger width;
+        if (range == null) {
+            final long[] bounds = readBounds();
+            if (bounds == null) {
+                return 0;
+            }
+            width = width(bounds[0], bounds[1]).add(BigInteger.ONE);
+        } else if (range.getLowerBound() == null || range.getUpperBound() == null) {
+            return 1; // open range, nothing better than a guess here
+        } else {
+            width = width(range.getLowerBound(), range.getUpperBound());
+        }
+        return width.min(BigInteger.valueOf(Long.MAX_VALUE)).longValue();
+    }
+
+    @Split
+    public List<PartitionedInputMapper> split(@PartitionSize final long desiredSize) {
+        if (range != null) { // already split
+            return singletonList(this);
+        }
+        final long[] bounds = readBounds();
+        if (bounds == null) { // empty table or only null keys
+            return singletonList(partition(null, null));
+        }
+        final BigInteger width = width(bounds[0], bounds[1]).add(BigInteger.ONE);
+        final BigInteger count = width.min(BigInteger.valueOf(Math.max(1, configuration.getPartitionCount())));
+        final int partitions = count.intValue();
+        if (partitions == 1) {
+            return singletonList(partition(null, null));
+        }
+
+        final List<PartitionedInputMapper> mappers = new ArrayList<>(partitions);
+        Long lower = null;
+        for (int i = 1; i < partitions; i++) {
+            final long upper = BigInteger.valueOf(bounds[0])
+                    .add(width.multiply(BigInteger.valueOf(i)).divide(count))
+                    .longValue();
+            mappers.add(partition(lower, upper));
+            lower = upper;
+        }
+        mappers.add(partition(lower, null));
+        return mappers;
+    }
+
+    @Emitter
+    public InputEmitter createWorker() {
+        return new InputEmitter(configuration.getDataset(), configuration.getSplitColumn(),
+                range == null ? new KeyRange(null, null) : range, jdbcDriversService, jsonBuilderFactory, i18n);
+    }
+
+    private PartitionedInputMapper partition(final Long lower, final Long upper) {
+        return new PartitionedInputMapper(configuration, new KeyRange(lower, upper), jdbcDriversService,
+                jsonBuilderFactory, i18n);
+    }
+
+    private static BigInteger width(final long lower, final long upper) {
+        return BigInteger.valueOf(upper).subtract(BigInteger.valueOf(lower));
+    }
+
+    /**
+     * @return the min and the max of the split column or null if the table has no key to split on
+     */
+    private long[] readBounds() {
+        final String query =
+                jdbcDriversService.createBoundsQuery(configuration.getDataset(), configuration.getSplitColumn());
+        try (final Connection connection = jdbcDriversService.connection(configuration.getConnection());
+                final Statement statement = connection.createStatement();
+                final ResultSet bounds = statement.executeQuery(query)) {
+            if (!bounds.next()) {
+                return null;
+            }
+            final long min = bounds.getLong(1);
+            if (bounds.wasNull()) {
+                return null;
+            }
+            return new long[] { min, bounds.getLong(2) };
+        } catch (SQLException e) {
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.talend.components.jdbc.input;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read the rows in a background thread into a bounded buffer so that the driver round trips overlap with the
+ * processing of the rows already read. The rows are returned in order, an error of the reader is thrown once the
+ * rows read before it are consumed.
+ */
+@Slf4j
+class ReadAheadBuffer implements AutoCloseable {
+
+    /**
+     * marks the end of the rows, compared by identity
+     */
+    private static final JsonObject END = JsonValue.EMPTY_JSON_OBJECT;
+
+    private static final long OFFER_TIMEOUT = 100;
+
+    private static final long CLOSE_TIMEOUT = 5000;
+
+    private final BlockingQueue<JsonObject> buffer;
+
+    private final RowSource source;
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    private final Thread reader;
+
+    private volatile boolean closed;
+
+    private boolean finished;
+
+    ReadAheadBuffer(final int capacity, final RowSource source, final String name) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.source = source;
+        this.reader = new Thread(this::read, "jdbc-read-ahead-" + name);
+        this.reader.setDaemon(true);
+    }
+
+    void start() {
+        reader.start();
+    }
+
+    /**
+     * @return the next row or null when all the rows are read
+     */
+    JsonObject next() {
+        if (finished) {
+            return null;
+        }
+        final JsonObject row;
+        try {
+            row = buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (row != END) {
+            return row;
+        }
+        finished = true;
+        final Throwable cause = error.get();
+        if (cause != null) {
+            if (RuntimeException.class.isInstance(cause)) {
+                throw RuntimeException.class.cast(cause);
+            }
+            throw new IllegalStateException(cause);
+        }
+        return null;
+    }
+
+    /**
+     * @return true while the reader thread may still use the result set
+     */
+    boolean isReading() {
+        return reader.isAlive();
+    }
+
+    /**
+     * Stop the reader and wait for it to leave the result set. A reader blocked in a driver call is only released
+     * when the statement is cancelled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        reader.interrupt();
+        buffer.clear(); // releases a reader waiting for some room
+        try {
+            reader.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (reader.isAlive()) {
+            log.warn("Read ahead thread {} is still running after {}ms", reader.getName(), CLOSE_TIMEOUT);
+        }
+    }
+
+    private void read() {
+        try {
+            JsonObject row;
+            while (!closed && (row = source.read()) != null) {
+                if (!put(row)) {
+                    return;
+                }
+            }
+        } catch (Throwable t) {
+            if (!closed) {
+                error.set(t);
+            }
+        }
+        put(END);
+    }
+
+    /**
+     * @return false if the buffer was closed before the row could be added
+     */
+    private boolean put(final JsonObject row) {
+        try {
+            while (!closed) {
+                if (buffer.offer(row, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    interface RowSource {
+
+        /**
+         * @return the next row or null after the last one
+         */
+        JsonObject read() throws SQLException;
+    }
+}
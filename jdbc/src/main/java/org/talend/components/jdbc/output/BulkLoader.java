@@ -0,0 +1,174 @@
+package org.talend.components.jdbc.output;
+
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import org.talend.components.jdbc.DriverInfo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stage the records to a local delimited file then load it with the native loader of the database.
+ * With the FILE mode the file is read by the database server, so it needs to run on the same host or to share
+ * the temporary directory.
+ */
+@Slf4j
+class BulkLoader implements AutoCloseable {
+
+    private final DriverInfo.BulkLoad bulkLoad;
+
+    private final String table;
+
+    /**
+     * the record fields written in the file, the fields of the first record
+     */
+    private List<String> columns;
+
+    private Path file;
+
+    private Writer writer;
+
+    private long staged;
+
+    BulkLoader(final DriverInfo.BulkLoad bulkLoad, final String table) {
+        this.bulkLoad = bulkLoad;
+        this.table = table;
+    }
+
+    void stage(final JsonObject record) throws IOException {
+        if (columns == null) {
+            columns = new ArrayList<>(record.keySet());
+        }
+        if (writer == null) {
+            file = Files.createTempFile("talend-jdbc-bulk", ".csv");
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(bulkLoad.getDelimiter());
+            }
+            write(record.get(columns.get(i)));
+        }
+        writer.write('\n');
+        staged++;
+    }
+
+    /**
+     * Load the staged records and start a new file.
+     *
+     * @return the number of loaded records
+     */
+    long load(final Connection connection) throws IOException, SQLException {
+        if (writer == null) {
+            return 0;
+        }
+        writer.close();
+        writer = null;
+        try {
+            final String statement = bulkLoad.getStatement()
+                    .replace("{table}", identifier(table))
+                    .replace("{columns}", columns.stream().map(this::identifier).collect(joining(",")))
+                    .replace("{file}", file.toAbsolutePath().toString().replace('\\', '/').replace("'", "''"));
+            log.debug("Loading {} records with: {}", staged, statement);
+            if ("COPY".equalsIgnoreCase(bulkLoad.getMode())) {
+                copy(connection, statement);
+            } else {
+                try (final Statement loader = connection.createStatement()) {
+                    loader.execute(statement);
+                }
+            }
+            return staged;
+        } finally {
+            staged = 0;
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void write(final JsonValue value) throws IOException {
+        if (value == null || value.getValueType() == JsonValue.ValueType.NULL) {
+            writer.write(bulkLoad.getNullValue());
+            return;
+        }
+        switch (value.getValueType()) {
+        case NUMBER:
+            writer.write(JsonNumber.class.cast(value).bigDecimalValue().toPlainString());
+            break;
+        case TRUE:
+        case FALSE:
+            writer.write(value.toString());
+            break;
+        case STRING:
+            quote(JsonString.class.cast(value).getString());
+            break;
+        default: // nested objects and arrays are written as json
+            quote(value.toString());
+        }
+    }
+
+    private void quote(final String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private String identifier(final String name) {
+        if ("UPPER".equalsIgnoreCase(bulkLoad.getIdentifierCase())) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        if ("LOWER".equalsIgnoreCase(bulkLoad.getIdentifierCase())) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        return name;
+    }
+
+    /**
+     * Stream the file to the PostgreSQL CopyManager, the driver is not a dependency of the component so it is
+     * called by reflection.
+     */
+    private void copy(final Connection connection, final String statement) throws IOException, SQLException {
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final Object pgConnection = connection.unwrap(Connection.class);
+            final Object copyManager = pgConnection.getClass().getMethod("getCopyAPI").invoke(pgConnection);
+            copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, statement,
+                    reader);
+        } catch (final InvocationTargetException e) {
+            final Throwable cause = e.getTargetException();
+            if (SQLException.class.isInstance(cause)) {
+                throw SQLException.class.cast(cause);
+            }
+            if (IOException.class.isInstance(cause)) {
+                throw IOException.class.cast(cause);
+            }
+            throw new IllegalStateException(cause);
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new SQLException("The connection " + connection + " has no PostgreSQL copy API", e);
+        }
+    }
+}
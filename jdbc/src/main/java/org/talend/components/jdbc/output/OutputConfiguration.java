@@ -0,0 +1,73 @@
+package org.talend.components.jdbc.output;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Min;
+import org.talend.sdk.component.api.configuration.constraint.Required;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import lombok.Data;
+
+@Data
+@GridLayout({
+        @GridLayout.Row("connection"),
+        @GridLayout.Row("tableName"),
+        @GridLayout.Row("actionOnData"),
+        @GridLayout.Row("keys"),
+        @GridLayout.Row("bulkLoad"),
+        @GridLayout.Row({ "batchSize", "commitInterval" }),
+})
+@Documentation("The records written to a database table")
+public class OutputConfiguration implements Serializable {
+
+    @Option
+    @Required
+    @Documentation("the connection information to the database")
+    private BasicDatastore connection;
+
+    @Option
+    @Required
+    @Documentation("The table where the records are written")
+    private String tableName;
+
+    @Option
+    @Required
+    @Documentation("The action done on the table for each record")
+    private ActionOnData actionOnData = ActionOnData.INSERT;
+
+    @Option
+    @ActiveIf(target = "actionOnData", value = { "UPDATE", "DELETE" })
+    @Documentation("The columns identifying the rows to update or delete")
+    private List<String> keys = new ArrayList<>();
+
+    @Option
+    @ActiveIf(target = "actionOnData", value = "INSERT")
+    @Documentation("Stage the records to a local file loaded by the native loader of the database instead of "
+            + "sending insert statements")
+    private boolean bulkLoad;
+
+    @Option
+    @Min(1)
+    @ActiveIf(target = "bulkLoad", value = "false")
+    @Documentation("The number of statements sent to the database in one batch")
+    private int batchSize = 1000;
+
+    @Option
+    @Min(0)
+    @Documentation("The number of records written between two commits, 0 commits only at the end of each group "
+            + "of records. In bulk load mode it is the number of records of each staged file")
+    private int commitInterval = 10000;
+
+    public enum ActionOnData {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+}
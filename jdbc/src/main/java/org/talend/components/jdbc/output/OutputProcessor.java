@@ -0,0 +1,308 @@
+package org.talend.components.jdbc.output;
+
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import org.talend.components.jdbc.DriverInfo;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.processor.AfterGroup;
+import org.talend.sdk.component.api.processor.BeforeGroup;
+import org.talend.sdk.component.api.processor.ElementListener;
+import org.talend.sdk.component.api.processor.Processor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write the incoming records to a table with a prepared statement. Statements are sent by batches of
+ * {@link OutputConfiguration#getBatchSize()} and committed every {@link OutputConfiguration#getCommitInterval()}
+ * records and at the end of each group.
+ * The statement columns are the fields of the first record, the fields missing in the following records are written
+ * as null and the extra ones are ignored.
+ * In bulk load mode the records are staged to a local file loaded by the native loader of the database at each
+ * commit.
+ */
+@Slf4j
+@Version
+@Icon(value = Icon.IconType.CUSTOM, custom = "JDBC")
+@Processor(name = "Output")
+@Documentation("JDBC table output")
+public class OutputProcessor implements Serializable {
+
+    private final OutputConfiguration configuration;
+
+    private final JdbcService jdbcDriversService;
+
+    private final I18nMessage i18n;
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    private BulkLoader bulkLoader;
+
+    /**
+     * the record fields bound to the statement parameters, in the parameters order
+     */
+    private List<String> parameters;
+
+    private int[] parameterTypes;
+
+    private int pending;
+
+    private long uncommitted;
+
+    private boolean failed;
+
+    public OutputProcessor(@Option("configuration") final OutputConfiguration configuration,
+            final JdbcService jdbcDriversService, final I18nMessage i18nMessage) {
+        this.configuration = configuration;
+        this.jdbcDriversService = jdbcDriversService;
+        this.i18n = i18nMessage;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (configuration.getActionOnData() != OutputConfiguration.ActionOnData.INSERT
+                && (configuration.getKeys() == null || configuration.getKeys().isEmpty())) {
+            throw new IllegalStateException(i18n.errorEmptyKeys(configuration.getActionOnData().name()));
+        }
+        if (configuration.isBulkLoad()) {
+            if (configuration.getActionOnData() != OutputConfiguration.ActionOnData.INSERT) {
+                throw new IllegalStateException(i18n.errorBulkLoadAction(configuration.getActionOnData().name()));
+            }
+            final String dbType = configuration.getConnection().getDbType();
+            final DriverInfo driverInfo = jdbcDriversService.getDrivers().get(dbType);
+            if (driverInfo == null) {
+                throw new IllegalStateException(i18n.errorDriverNotFound(dbType));
+            }
+            if (driverInfo.getBulkLoad() == null) {
+                throw new IllegalStateException(i18n.errorBulkLoadNotSupported(dbType));
+            }
+            bulkLoader = new BulkLoader(driverInfo.getBulkLoad(), configuration.getTableName());
+        }
+    }
+
+    @BeforeGroup
+    public void beforeGroup() {
+        if (connection != null) {
+            return;
+        }
+        try {
+            connection = jdbcDriversService.connection(configuration.getConnection());
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        }
+    }
+
+    @ElementListener
+    public void onNext(final JsonObject record) {
+        try {
+            if (connection == null) {
+                beforeGroup();
+            }
+            if (bulkLoader != null) {
+                bulkLoader.stage(record);
+            } else {
+                if (statement == null) {
+                    prepare(record);
+                }
+                for (int i = 0; i < parameters.size(); i++) {
+                    bind(i + 1, parameterTypes[i], record.get(parameters.get(i)));
+                }
+                statement.addBatch();
+                pending++;
+            }
+            uncommitted++;
+            if (pending >= configuration.getBatchSize()) {
+                flush();
+            }
+            if (configuration.getCommitInterval() > 0 && uncommitted >= configuration.getCommitInterval()) {
+                commit();
+            }
+        } catch (SQLException e) {
+            failed = true;
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        } catch (IOException e) {
+            failed = true;
+            throw new IllegalStateException(i18n.errorBulkLoadStaging(e.getMessage()), e);
+        }
+    }
+
+    @AfterGroup
+    public void afterGroup() {
+        try {
+            commit();
+        } catch (SQLException e) {
+            failed = true;
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        } catch (IOException e) {
+            failed = true;
+            throw new IllegalStateException(i18n.errorBulkLoadStaging(e.getMessage()), e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            if (connection != null) {
+                if (failed) {
+                    connection.rollback();
+                } else {
+                    commit();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
+        } catch (IOException e) {
+            throw new IllegalStateException(i18n.errorBulkLoadStaging(e.getMessage()), e);
+        } finally {
+            if (bulkLoader != null) {
+                try {
+                    bulkLoader.close();
+                } catch (IOException e) {
+                    log.warn(e.getMessage(), e);
+                }
+            }
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    log.warn(i18n.warnStatementCantBeClosed(), e);
+                }
+            }
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn(i18n.warnConnectionCantBeClosed(), e);
+                }
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    private void commit() throws SQLException, IOException {
+        if (connection == null) {
+            return;
+        }
+        if (bulkLoader != null) {
+            bulkLoader.load(connection);
+        }
+        flush();
+        if (uncommitted > 0) {
+            connection.commit();
+            uncommitted = 0;
+        }
+    }
+
+    private void prepare(final JsonObject record) throws SQLException {
+        final List<String> keys = new ArrayList<>();
+        for (final String key : configuration.getKeys()) {
+            keys.add(record.keySet().stream().filter(key::equalsIgnoreCase).findFirst().orElse(key));
+        }
+        final List<String> columns = new ArrayList<>(record.keySet());
+        columns.removeAll(keys);
+
+        final String query;
+        parameters = new ArrayList<>();
+        switch (configuration.getActionOnData()) {
+        case UPDATE:
+            if (columns.isEmpty()) {
+                throw new IllegalStateException(i18n.errorNoColumnToUpdate());
+            }
+            query = "update " + configuration.getTableName() + " set "
+                    + columns.stream().map(c -> c + " = ?").collect(joining(", ")) + " where "
+                    + keys.stream().map(c -> c + " = ?").collect(joining(" and "));
+            parameters.addAll(columns);
+            parameters.addAll(keys);
+            break;
+        case DELETE:
+            query = "delete from " + configuration.getTableName() + " where "
+                    + keys.stream().map(c -> c + " = ?").collect(joining(" and "));
+            parameters.addAll(keys);
+            break;
+        case INSERT:
+        default:
+            query = "insert into " + configuration.getTableName() + " ("
+                    + String.join(", ", record.keySet()) + ") values ("
+                    + record.keySet().stream().map(c -> "?").collect(joining(", ")) + ")";
+            parameters.addAll(record.keySet());
+        }
+
+        statement = connection.prepareStatement(query);
+        parameterTypes = new int[parameters.size()];
+        try {
+            final ParameterMetaData metaData = statement.getParameterMetaData();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = metaData.getParameterType(i + 1);
+            }
+        } catch (SQLException | RuntimeException e) { // not supported by every driver
+            log.debug("Parameter types of '{}' are not available", query, e);
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = Types.VARCHAR;
+            }
+        }
+    }
+
+    private void bind(final int index, final int sqlType, final JsonValue value) throws SQLException {
+        if (value == null || value.getValueType() == JsonValue.ValueType.NULL) {
+            statement.setNull(index, sqlType);
+            return;
+        }
+        switch (value.getValueType()) {
+        case STRING:
+            statement.setString(index, JsonString.class.cast(value).getString());
+            break;
+        case NUMBER:
+            final JsonNumber number = JsonNumber.class.cast(value);
+            if (sqlType == Types.DECIMAL || sqlType == Types.NUMERIC) {
+                statement.setBigDecimal(index, number.bigDecimalValue());
+            } else if (number.isIntegral()) {
+                try {
+                    statement.setLong(index, number.longValueExact());
+                } catch (ArithmeticException e) { // doesn't fit in a long
+                    statement.setBigDecimal(index, number.bigDecimalValue());
+                }
+            } else {
+                statement.setDouble(index, number.doubleValue());
+            }
+            break;
+        case TRUE:
+            statement.setBoolean(index, true);
+            break;
+        case FALSE:
+            statement.setBoolean(index, false);
+            break;
+        default: // nested objects and arrays are written as json
+            statement.setString(index, value.toString());
+        }
+    }
+}
@@ -4,9 +4,7 @@ import static java.util.stream.Collectors.toList;
 
 import java.net.URLClassLoader;
 import java.sql.Connection;
-import java.sql.Driver;
 import java.sql.SQLException;
-import java.util.Properties;
 
 import org.talend.components.jdbc.datastore.BasicDatastore;
 import org.talend.sdk.component.api.configuration.Option;
@@ -44,31 +42,15 @@ public class ActionService {
         if (loader == null) {
             throw new IllegalStateException(i18n.errorCantLoadDriver(datastore.getDbType()));
         }
-        try {
-            Driver driver = Driver.class.cast(loader.loadClass(jdbcDriversService.getDrivers()
-                    .get(datastore.getDbType()).getClazz()).newInstance());
-
-            if (!driver.acceptsURL(datastore.getJdbcUrl())) {
-                return new HealthCheckStatus(HealthCheckStatus.Status.KO, i18n.errorUnsupportedSubProtocol());
-            }
-            final Properties info = new Properties() {{
-                setProperty("user", datastore.getUserId());
-                setProperty("password", datastore.getPassword());
-            }};
-            try (Connection connection = driver.connect(datastore.getJdbcUrl(), info)) {
-                if (!connection.isValid(15)) {
-                    return new HealthCheckStatus(HealthCheckStatus.Status.KO, i18n.errorInvalidConnection());
-                }
+        try (Connection connection = jdbcDriversService.connection(datastore)) {
+            if (!connection.isValid(15)) {
+                return new HealthCheckStatus(HealthCheckStatus.Status.KO, i18n.errorInvalidConnection());
             }
-        } catch (ClassNotFoundException e) {
-            return new HealthCheckStatus(HealthCheckStatus.Status.KO,
-                    i18n.errorDriverNotFound(datastore.getDbType()));
         } catch (SQLException e) {
             return new HealthCheckStatus(HealthCheckStatus.Status.KO,
                     i18n.errorSQL(e.getErrorCode(), e.getMessage()));
-        } catch (IllegalAccessException | InstantiationException e) {
-            return new HealthCheckStatus(HealthCheckStatus.Status.KO,
-                    i18n.errorDriverInstantiation(e.getMessage()));
+        } catch (IllegalStateException e) { // driver can't be loaded or doesn't support the url
+            return new HealthCheckStatus(HealthCheckStatus.Status.KO, e.getMessage());
         }
 
         return new HealthCheckStatus(HealthCheckStatus.Status.OK, i18n.successConnection());
@@ -0,0 +1,20 @@
+package org.talend.components.jdbc.service;
+
+import org.talend.components.jdbc.Checkpoint;
+
+/**
+ * Where the checkpoints of the incremental reads are kept between two runs.
+ * An implementation with a public no argument constructor can replace the default {@link FileCheckpointStore}
+ * with the <code>org.talend.component.jdbc.checkpoint.store</code> configuration key.
+ */
+public interface CheckpointStore {
+
+    /**
+     * @return the checkpoint saved with this name or null if there is none
+     */
+    Checkpoint load(String name);
+
+    void save(String name, Checkpoint checkpoint);
+
+    void remove(String name);
+}
@@ -0,0 +1,316 @@
+package org.talend.components.jdbc.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A bounded pool of physical connections to one database with one user.
+ * Borrowed connections are validated and returned to the pool when they are closed.
+ */
+@Slf4j
+public class ConnectionPool implements AutoCloseable {
+
+    private final String name;
+
+    private final ConnectionFactory factory;
+
+    private final int maxSize;
+
+    private final long idleTimeout;
+
+    private final int validationTimeout;
+
+    private final long borrowTimeout;
+
+    private final Semaphore permits;
+
+    /**
+     * idle connections, the most recently returned first
+     */
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+    private final AtomicLong created = new AtomicLong();
+
+    private final AtomicLong borrowed = new AtomicLong();
+
+    private final AtomicLong evicted = new AtomicLong();
+
+    private final AtomicLong invalid = new AtomicLong();
+
+    private final AtomicLong waitTime = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param idleTimeout idle time in milliseconds after which a connection is closed
+     * @param validationTimeout the timeout in seconds of the validation done when a connection is borrowed
+     * @param borrowTimeout the time in milliseconds to wait for a connection when the pool is exhausted
+     */
+    public ConnectionPool(final String name, final ConnectionFactory factory, final int maxSize,
+            final long idleTimeout, final int validationTimeout, final long borrowTimeout) {
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.validationTimeout = validationTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool " + name + " is closed");
+        }
+        final long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(
+                        "No connection available in pool " + name + " after " + borrowTimeout + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        } finally {
+            waitTime.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        boolean acquired = false;
+        try {
+            Connection physical;
+            while ((physical = pollIdle()) != null) {
+                if (isValid(physical)) {
+                    break;
+                }
+                invalid.incrementAndGet();
+                closeQuietly(physical);
+            }
+            if (physical == null) {
+                physical = factory.open();
+                created.incrementAndGet();
+            }
+            borrowed.incrementAndGet();
+            acquired = true;
+            return wrap(physical);
+        } finally {
+            if (!acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Close the connections idle for more than the idle timeout.
+     */
+    public void evictIdle() {
+        final List<Connection> expired = new ArrayList<>();
+        final long now = System.currentTimeMillis();
+        synchronized (idle) {
+            final Iterator<IdleConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                final IdleConnection connection = it.next();
+                if (now - connection.getSince() > idleTimeout) {
+                    it.remove();
+                    expired.add(connection.getConnection());
+                }
+            }
+        }
+        evicted.addAndGet(expired.size());
+        expired.forEach(this::closeQuietly);
+    }
+
+    public Metrics getMetrics() {
+        final int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new Metrics(maxSize - permits.availablePermits(), idleCount, created.get(), borrowed.get(),
+                evicted.get(), invalid.get(), waitTime.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        final List<IdleConnection> connections;
+        synchronized (idle) {
+            connections = new ArrayList<>(idle);
+            idle.clear();
+        }
+        connections.forEach(c -> closeQuietly(c.getConnection()));
+    }
+
+    private Connection pollIdle() {
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                final IdleConnection connection = idle.pollFirst();
+                if (System.currentTimeMillis() - connection.getSince() <= idleTimeout) {
+                    return connection.getConnection();
+                }
+                evicted.incrementAndGet();
+                closeQuietly(connection.getConnection());
+            }
+        }
+        return null;
+    }
+
+    private boolean isValid(final Connection connection) {
+        try {
+            return connection.isValid(validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(final Connection physical, final boolean broken) {
+        try {
+            if (closed || broken || !reset(physical)) {
+                closeQuietly(physical);
+                return;
+            }
+            synchronized (idle) {
+                idle.offerFirst(new IdleConnection(physical, System.currentTimeMillis()));
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Put back the connection in its default state before it is reused.
+     *
+     * @return false if the connection can't be reused
+     */
+    private boolean reset(final Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            log.debug("Connection of pool {} can't be reset, it will be closed", name, e);
+            return false;
+        }
+    }
+
+    private void closeQuietly(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Connection of pool {} was not closed correctly", name, e);
+        }
+    }
+
+    private Connection wrap(final Connection physical) {
+        return Connection.class.cast(Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new PooledConnectionHandler(physical)));
+    }
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        Connection open() throws SQLException;
+    }
+
+    @Data
+    public static class Metrics {
+
+        private final int active;
+
+        private final int idle;
+
+        private final long created;
+
+        private final long borrowed;
+
+        private final long evicted;
+
+        private final long invalid;
+
+        /**
+         * total time in milliseconds spent waiting for a free connection
+         */
+        private final long waitTime;
+    }
+
+    @Data
+    private static class IdleConnection {
+
+        private final Connection connection;
+
+        private final long since;
+    }
+
+    /**
+     * Delegates to the physical connection, except for close which gives it back to the pool.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+
+        private final Connection physical;
+
+        private boolean released;
+
+        private boolean broken;
+
+        private PooledConnectionHandler(final Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "close":
+                if (!released) {
+                    released = true;
+                    release(physical, broken);
+                }
+                return null;
+            case "isClosed":
+                return released || physical.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Pooled[" + physical + "]";
+            default:
+                if (released) {
+                    throw new SQLException("Connection is closed");
+                }
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    final Throwable cause = e.getTargetException();
+                    if (SQLException.class.isInstance(cause)) {
+                        final String state = SQLException.class.cast(cause).getSQLState();
+                        // connection exception class, the physical connection can't be reused
+                        broken = broken || (state != null && state.startsWith("08"));
+                    }
+                    throw cause;
+                }
+            }
+        }
+    }
+}
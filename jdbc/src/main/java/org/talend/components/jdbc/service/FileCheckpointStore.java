@@ -0,0 +1,80 @@
+package org.talend.components.jdbc.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.talend.components.jdbc.Checkpoint;
+
+/**
+ * Keep the checkpoints in a local properties file. The file is replaced atomically at each save so that a crash
+ * never leaves a truncated file.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private static final String FILE_NAME = "checkpoints.properties";
+
+    private final Path file;
+
+    public FileCheckpointStore(final Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    @Override
+    public synchronized Checkpoint load(final String name) {
+        final Properties checkpoints = read();
+        final String value = checkpoints.getProperty(name + ".value");
+        if (value == null) {
+            return null;
+        }
+        return new Checkpoint(value, Integer.parseInt(checkpoints.getProperty(name + ".type")));
+    }
+
+    @Override
+    public synchronized void save(final String name, final Checkpoint checkpoint) {
+        final Properties checkpoints = read();
+        checkpoints.setProperty(name + ".value", checkpoint.getValue());
+        checkpoints.setProperty(name + ".type", Integer.toString(checkpoint.getSqlType()));
+        write(checkpoints);
+    }
+
+    @Override
+    public synchronized void remove(final String name) {
+        final Properties checkpoints = read();
+        if (checkpoints.remove(name + ".value") != null) {
+            checkpoints.remove(name + ".type");
+            write(checkpoints);
+        }
+    }
+
+    private Properties read() {
+        final Properties checkpoints = new Properties();
+        if (Files.exists(file)) {
+            try (final InputStream is = Files.newInputStream(file)) {
+                checkpoints.load(is);
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't read the checkpoints from " + file, e);
+            }
+        }
+        return checkpoints;
+    }
+
+    private void write(final Properties checkpoints) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path tmp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+            try (final OutputStream os = Files.newOutputStream(tmp)) {
+                checkpoints.store(os, "JDBC incremental read checkpoints");
+            }
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't write the checkpoints to " + file, e);
+        }
+    }
+}
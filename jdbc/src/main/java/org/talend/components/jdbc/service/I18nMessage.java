@@ -37,4 +37,36 @@ public interface I18nMessage {
 
     String warnConnectionCantBeClosed();
 
+    String errorPartitionedSourceType();
+
+    String errorEmptySplitColumn();
+
+    String errorUnknownReadProfileValue(String property, String value);
+
+    String errorEmptyKeys(String actionOnData);
+
+    String errorNoColumnToUpdate();
+
+    String errorBulkLoadNotSupported(String dbType);
+
+    String errorBulkLoadAction(String actionOnData);
+
+    String errorBulkLoadStaging(String message);
+
+    String errorEmptyIncrementalColumn();
+
+    String errorEmptyCheckpointName();
+
+    String errorIncrementalColumnNotFound(String column);
+
+    String errorCheckpointStore(String store, String message);
+
+    String errorKeysetSourceType();
+
+    String errorNoSingleColumnKey(String table);
+
+    String errorKeyColumnNotFound(String column, String table);
+
+    String warnPageRetry(int attempt, int maxRetries, String message);
+
 }
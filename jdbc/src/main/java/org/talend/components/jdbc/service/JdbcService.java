@@ -1,6 +1,5 @@
 package org.talend.components.jdbc.service;
 
-import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
 
@@ -11,31 +10,51 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
 import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
 import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.json.bind.Jsonb;
 
+import org.talend.components.jdbc.Checkpoint;
 import org.talend.components.jdbc.DriverInfo;
+import org.talend.components.jdbc.KeyRange;
 import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
 import org.talend.sdk.component.api.service.Service;
 import org.talend.sdk.component.api.service.configuration.LocalConfiguration;
 import org.talend.sdk.component.api.service.dependency.Resolver;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,6 +64,18 @@ public class JdbcService {
 
     private final static String CONFIG_FILE_lOCATION_KEY = "org.talend.component.jdbc.config.file";
 
+    private final static String POOL_MAX_SIZE_KEY = "org.talend.component.jdbc.pool.maxSize";
+
+    private final static String POOL_IDLE_TIMEOUT_KEY = "org.talend.component.jdbc.pool.idleTimeout";
+
+    private final static String POOL_VALIDATION_TIMEOUT_KEY = "org.talend.component.jdbc.pool.validationTimeout";
+
+    private final static String POOL_BORROW_TIMEOUT_KEY = "org.talend.component.jdbc.pool.borrowTimeout";
+
+    private final static String CHECKPOINT_STORE_KEY = "org.talend.component.jdbc.checkpoint.store";
+
+    private final static String CHECKPOINT_DIRECTORY_KEY = "org.talend.component.jdbc.checkpoint.directory";
+
     private static Pattern READ_ONLY_QUERY_PATTERN = Pattern.compile(
             "^SELECT\\s+((?!((\\bINTO\\b)|(\\bFOR\\s+UPDATE\\b)|(\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b))).)+$",
             Pattern.CASE_INSENSITIVE | Pattern.DOTALL | Pattern.MULTILINE);
@@ -72,7 +103,14 @@ public class JdbcService {
     @Getter(lazy = true)
     private final Map<String, DriverInfo> drivers = loadtDriversFromConfigurationFile();
 
-    private final Map<String, URLClassLoader> driversClassLoaders = new HashMap<>();
+    @Getter(lazy = true)
+    private final CheckpointStore checkpointStore = createCheckpointStore();
+
+    private final Map<String, URLClassLoader> driversClassLoaders = new ConcurrentHashMap<>();
+
+    private final Map<PoolKey, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService poolEvictor;
 
     @Service
     private Jsonb jsonb;
@@ -89,6 +127,14 @@ public class JdbcService {
     @PostConstruct
     public void init() {
         initialRegisteredDrivers = DriverManager.getDrivers();
+        poolEvictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "jdbc-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long idleTimeout = getPoolSetting(POOL_IDLE_TIMEOUT_KEY, 300_000L);
+        poolEvictor.scheduleWithFixedDelay(() -> pools.values().forEach(ConnectionPool::evictIdle),
+                idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -96,6 +142,15 @@ public class JdbcService {
      */
     @PreDestroy
     public void clean() {
+        if (poolEvictor != null) {
+            poolEvictor.shutdownNow();
+        }
+        pools.forEach((key, pool) -> {
+            log.debug("Closing connection pool {} {}", key, pool.getMetrics());
+            pool.close();
+        });
+        pools.clear();
+
         final Enumeration<Driver> registeredDrivers = DriverManager.getDrivers();
         getDrivers().entrySet()
                 .stream()
@@ -139,7 +194,7 @@ public class JdbcService {
     }
 
     private Map<String, DriverInfo> loadtDriversFromConfigurationFile() {
-        final Map<String, DriverInfo> availableDrivers = new HashMap<>();
+        final Map<String, DriverInfo> availableDrivers = new LinkedHashMap<>();
         InputStream is = null;
         try {
             final String configFile = localConfiguration.get(CONFIG_FILE_lOCATION_KEY);
@@ -156,7 +211,7 @@ public class JdbcService {
                 }
             }
             final List<DriverInfo> info = jsonb.fromJson(is, driversType);
-            availableDrivers.putAll(info.stream().collect(toMap(DriverInfo::getId, identity())));
+            info.forEach(driver -> availableDrivers.put(driver.getId(), driver));
         } finally {
             if (is != null) {
                 try {
@@ -170,6 +225,25 @@ public class JdbcService {
         return availableDrivers;
     }
 
+    /**
+     * The checkpoint store is the class set with the <code>org.talend.component.jdbc.checkpoint.store</code> key,
+     * by default a file in the <code>org.talend.component.jdbc.checkpoint.directory</code> directory.
+     */
+    private CheckpointStore createCheckpointStore() {
+        final String storeClass = localConfiguration.get(CHECKPOINT_STORE_KEY);
+        if (storeClass != null && !storeClass.trim().isEmpty()) {
+            try {
+                return CheckpointStore.class
+                        .cast(this.getClass().getClassLoader().loadClass(storeClass.trim()).newInstance());
+            } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+                throw new IllegalStateException(i18n.errorCheckpointStore(storeClass, e.getMessage()), e);
+            }
+        }
+        final String directory = localConfiguration.get(CHECKPOINT_DIRECTORY_KEY);
+        return new FileCheckpointStore(directory != null && !directory.trim().isEmpty() ? Paths.get(directory.trim())
+                : Paths.get(System.getProperty("user.home"), ".talend", "jdbc", "checkpoints"));
+    }
+
     public URLClassLoader getDriverClassLoader(final String driverId) {
         return driversClassLoaders.computeIfAbsent(driverId, key -> {
             final DriverInfo driver = getDrivers().get(driverId);
@@ -199,6 +273,112 @@ public class JdbcService {
         });
     }
 
+    /**
+     * Borrow a connection to the datastore from the pool of its database type, url and user.
+     * Closing the connection gives it back to the pool.
+     */
+    public Connection connection(final BasicDatastore datastore) throws SQLException {
+        return pools.computeIfAbsent(new PoolKey(datastore), key -> new ConnectionPool(key.toString(),
+                () -> openConnection(datastore), getPoolSetting(POOL_MAX_SIZE_KEY, 16L).intValue(),
+                getPoolSetting(POOL_IDLE_TIMEOUT_KEY, 300_000L),
+                getPoolSetting(POOL_VALIDATION_TIMEOUT_KEY, 5L).intValue(),
+                getPoolSetting(POOL_BORROW_TIMEOUT_KEY, 30_000L))).borrow();
+    }
+
+    /**
+     * @return the metrics of the connection pools by datastore
+     */
+    public Map<String, ConnectionPool.Metrics> getPoolMetrics() {
+        return pools.entrySet()
+                .stream()
+                .collect(toMap(e -> e.getKey().toString(), e -> e.getValue().getMetrics()));
+    }
+
+    private Long getPoolSetting(final String key, final Long defaultValue) {
+        final String value = localConfiguration.get(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Long.valueOf(value.trim());
+    }
+
+    /**
+     * Open a new connection to the datastore using the driver declared for its database type.
+     */
+    private Connection openConnection(final BasicDatastore datastore) throws SQLException {
+        final DriverInfo driverInfo = getDrivers().get(datastore.getDbType());
+        if (driverInfo == null) {
+            throw new IllegalStateException(i18n.errorDriverNotFound(datastore.getDbType()));
+        }
+        final URLClassLoader driverLoader = getDriverClassLoader(driverInfo.getId());
+        if (driverLoader == null) {
+            throw new IllegalStateException(i18n.errorCantLoadDriver(datastore.getDbType()));
+        }
+        final Driver driver;
+        try {
+            driver = (Driver) driverLoader.loadClass(driverInfo.getClazz()).newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new IllegalStateException(i18n.errorCantLoadDriver(datastore.getDbType()));
+        }
+        if (!driver.acceptsURL(datastore.getJdbcUrl())) {
+            throw new IllegalStateException(i18n.errorUnsupportedSubProtocol());
+        }
+        final Properties info = new Properties() {{
+            putAll(driverInfo.getProperties());
+            setProperty("user", datastore.getUserId());
+            setProperty("password", datastore.getPassword());
+        }};
+        return driver.connect(datastore.getJdbcUrl(), info);
+    }
+
+    /**
+     * Prepare a read only statement tuned with the read profile of the database type.
+     *
+     * @param fetchSize the rows to fetch by round trip, overrides the profile value when greater than 0
+     */
+    public PreparedStatement prepareReadStatement(final Connection connection, final DriverInfo driverInfo,
+            final String query, final int fetchSize) throws SQLException {
+        final DriverInfo.ReadProfile profile = driverInfo.getReadProfile();
+        if (profile.getAutoCommit() != null && connection.getAutoCommit() != profile.getAutoCommit()) {
+            connection.setAutoCommit(profile.getAutoCommit());
+        }
+        final int resultSetType = resultSetType(profile.getResultSetType());
+        final PreparedStatement statement = profile.getHoldability() == null
+                ? connection.prepareStatement(query, resultSetType, ResultSet.CONCUR_READ_ONLY)
+                : connection.prepareStatement(query, resultSetType, ResultSet.CONCUR_READ_ONLY,
+                        holdability(profile.getHoldability()));
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        } else if (profile.getFetchSize() != null) {
+            statement.setFetchSize(profile.getFetchSize());
+        }
+        return statement;
+    }
+
+    private int resultSetType(final String type) {
+        if (type == null) {
+            return ResultSet.TYPE_FORWARD_ONLY;
+        }
+        switch (type) {
+        case "SCROLL_INSENSITIVE":
+            return ResultSet.TYPE_SCROLL_INSENSITIVE;
+        case "SCROLL_SENSITIVE":
+            return ResultSet.TYPE_SCROLL_SENSITIVE;
+        case "FORWARD_ONLY":
+            return ResultSet.TYPE_FORWARD_ONLY;
+        default:
+            throw new IllegalArgumentException(i18n.errorUnknownReadProfileValue("resultSetType", type));
+        }
+    }
+
+    private int holdability(final String holdability) {
+        switch (holdability) {
+        case "HOLD_CURSORS_OVER_COMMIT":
+            return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+        case "CLOSE_CURSORS_AT_COMMIT":
+            return ResultSet.CLOSE_CURSORS_AT_COMMIT;
+        default:
+            throw new IllegalArgumentException(i18n.errorUnknownReadProfileValue("holdability", holdability));
+        }
+    }
+
     public String createQuery(final QueryDataset queryDataset) {
         if (QueryDataset.SourceType.TABLE_NAME.equals(queryDataset.getSourceType())) {
             return "select * from " + queryDataset.getTableName();
@@ -213,4 +393,152 @@ public class JdbcService {
         }
     }
 
+    /**
+     * Build the query reading the rows added since the checkpoint, ordered by the incremental column so that the
+     * last value read is the highest one. A query source is wrapped in a sub query.
+     * Without checkpoint the whole source is read.
+     */
+    public String createIncrementalQuery(final QueryDataset queryDataset, final Checkpoint checkpoint) {
+        final String column = queryDataset.getIncrementalColumn();
+        if (column == null || column.trim().isEmpty()) {
+            throw new IllegalStateException(i18n.errorEmptyIncrementalColumn());
+        }
+        final String source = QueryDataset.SourceType.TABLE_NAME.equals(queryDataset.getSourceType())
+                ? queryDataset.getTableName() : "(" + createQuery(queryDataset) + ") incremental_source";
+        return "select * from " + source + (checkpoint == null ? "" : " where " + column + " > ?")
+                + " order by " + column;
+    }
+
+    /**
+     * Build the query reading one page of a table ordered by its key, the maximum number of rows is set on the
+     * statement. The pages after the first one start after the last key of the previous page.
+     */
+    public String createPageQuery(final QueryDataset queryDataset, final String keyColumn, final boolean afterKey) {
+        if (!QueryDataset.SourceType.TABLE_NAME.equals(queryDataset.getSourceType())) {
+            throw new IllegalStateException(i18n.errorKeysetSourceType());
+        }
+        return "select * from " + queryDataset.getTableName() + (afterKey ? " where " + keyColumn + " > ?" : "")
+                + " order by " + keyColumn;
+    }
+
+    /**
+     * @return the single column primary key of the table
+     */
+    public String findPrimaryKey(final Connection connection, final String table) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        // the table name is stored in upper or lower case by most databases when it is not quoted
+        for (final String name : new String[] { table, table.toUpperCase(Locale.ROOT),
+                table.toLowerCase(Locale.ROOT) }) {
+            final List<String> keys = new ArrayList<>();
+            try (final ResultSet primaryKeys = metaData.getPrimaryKeys(null, null, name)) {
+                while (primaryKeys.next()) {
+                    keys.add(primaryKeys.getString("COLUMN_NAME"));
+                }
+            }
+            if (keys.size() == 1) {
+                return keys.get(0);
+            }
+            if (keys.size() > 1) {
+                break;
+            }
+        }
+        throw new IllegalStateException(i18n.errorNoSingleColumnKey(table));
+    }
+
+    /**
+     * Bind the checkpoint value with the setter of its sql type, drivers like PostgreSQL don't compare a string
+     * parameter with a timestamp or a numeric column.
+     */
+    public void setCheckpointParameter(final PreparedStatement statement, final int index,
+            final Checkpoint checkpoint) throws SQLException {
+        switch (checkpoint.getSqlType()) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+            statement.setLong(index, Long.parseLong(checkpoint.getValue()));
+            break;
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            statement.setBigDecimal(index, new BigDecimal(checkpoint.getValue()));
+            break;
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            statement.setDouble(index, Double.parseDouble(checkpoint.getValue()));
+            break;
+        case Types.DATE:
+            statement.setDate(index, Date.valueOf(checkpoint.getValue()));
+            break;
+        case Types.TIMESTAMP:
+            statement.setTimestamp(index, Timestamp.valueOf(checkpoint.getValue()));
+            break;
+        default:
+            statement.setString(index, checkpoint.getValue());
+        }
+    }
+
+    /**
+     * @return a query selecting the lowest and the highest value of the split column
+     */
+    public String createBoundsQuery(final QueryDataset queryDataset, final String splitColumn) {
+        checkPartitionable(queryDataset, splitColumn);
+        return "select min(" + splitColumn + "), max(" + splitColumn + ") from " + queryDataset.getTableName();
+    }
+
+    /**
+     * Build the query reading one key range of a table.
+     * The first range also selects the rows having a null key, the last one is open to catch the rows inserted
+     * after the bounds were computed. The lower bound parameter, if any, comes before the upper one.
+     */
+    public String createRangeQuery(final QueryDataset queryDataset, final String splitColumn, final KeyRange range) {
+        checkPartitionable(queryDataset, splitColumn);
+        final String query = "select * from " + queryDataset.getTableName();
+        if (range.getLowerBound() == null && range.getUpperBound() == null) {
+            return query;
+        } else if (range.getLowerBound() == null) {
+            return query + " where " + splitColumn + " < ? or " + splitColumn + " is null";
+        } else if (range.getUpperBound() == null) {
+            return query + " where " + splitColumn + " >= ?";
+        }
+        return query + " where " + splitColumn + " >= ? and " + splitColumn + " < ?";
+    }
+
+    private void checkPartitionable(final QueryDataset queryDataset, final String splitColumn) {
+        if (!QueryDataset.SourceType.TABLE_NAME.equals(queryDataset.getSourceType())) {
+            throw new IllegalStateException(i18n.errorPartitionedSourceType());
+        }
+        if (splitColumn == null || splitColumn.trim().isEmpty()) {
+            throw new IllegalStateException(i18n.errorEmptySplitColumn());
+        }
+    }
+
+    /**
+     * Connections are pooled by database type, url and user. The password is part of the key so that a connection
+     * opened with valid credentials is never handed to a caller using other ones.
+     */
+    @EqualsAndHashCode
+    private static class PoolKey {
+
+        private final String dbType;
+
+        private final String jdbcUrl;
+
+        private final String userId;
+
+        private final String password;
+
+        private PoolKey(final BasicDatastore datastore) {
+            this.dbType = datastore.getDbType();
+            this.jdbcUrl = datastore.getJdbcUrl();
+            this.userId = datastore.getUserId();
+            this.password = datastore.getPassword();
+        }
+
+        @Override
+        public String toString() {
+            return dbType + "|" + jdbcUrl + "|" + userId;
+        }
+    }
+
 }
@@ -0,0 +1,74 @@
+package org.talend.components.jdbc.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.DerbyExtension;
+import org.talend.components.jdbc.WithDerby;
+
+@WithDerby
+class ColumnPlanTest {
+
+    private static final String COLUMNS = "c_int int, c_smallint smallint, c_bigint bigint, c_decimal decimal(10, 2), "
+            + "c_numeric numeric(12, 4), c_double double, c_real real, c_boolean boolean, c_date date, c_time time, "
+            + "c_timestamp timestamp, c_varchar varchar(20), c_char char(5), c_long_varchar long varchar";
+
+    @Test
+    @DisplayName("Each sql type is read with its typed getter and format")
+    void readTypes(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        try (final Connection connection = DriverManager.getConnection(
+                "jdbc:derby://localhost:" + derbyInfo.getPort() + "/" + derbyInfo.getDbName(), "sa", "sa");
+                final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table types(" + COLUMNS + ")");
+            try {
+                statement.executeUpdate("insert into types values (-7, 12, 9007199254740993, 12345.67, "
+                        + "-0.0001, 1.5, 2.25, true, '2018-06-11', '08:05:09', '2018-06-11 12:34:56.7', 'text', "
+                        + "'ab', 'long text')");
+                statement.executeUpdate("insert into types values (null, null, null, null, null, null, null, "
+                        + "null, null, null, null, null, null, null)");
+                try (final ResultSet resultSet = statement.executeQuery("select * from types order by c_int")) {
+                    final ColumnPlan plan = ColumnPlan.of(resultSet.getMetaData());
+
+                    assertTrue(resultSet.next());
+                    final JsonObject record = plan.read(resultSet, Json.createBuilderFactory(null));
+                    assertEquals(-7, record.getInt("C_INT"));
+                    assertEquals(12, record.getInt("C_SMALLINT"));
+                    assertEquals(9007199254740993L, record.getJsonNumber("C_BIGINT").longValueExact());
+                    assertEquals(new BigDecimal("12345.67"), record.getJsonNumber("C_DECIMAL").bigDecimalValue());
+                    assertEquals(new BigDecimal("-0.0001"), record.getJsonNumber("C_NUMERIC").bigDecimalValue());
+                    assertEquals(1.5, record.getJsonNumber("C_DOUBLE").doubleValue());
+                    assertEquals(2.25, record.getJsonNumber("C_REAL").doubleValue());
+                    assertEquals(JsonValue.TRUE, record.get("C_BOOLEAN"));
+                    assertEquals("2018-06-11", record.getString("C_DATE"));
+                    assertEquals("08:05:09", record.getString("C_TIME"));
+                    assertEquals("2018-06-11 12:34:56.700", record.getString("C_TIMESTAMP"));
+                    assertEquals("text", record.getString("C_VARCHAR"));
+                    assertEquals("ab   ", record.getString("C_CHAR"));
+                    assertEquals("long text", record.getString("C_LONG_VARCHAR"));
+
+                    assertTrue(resultSet.next());
+                    final JsonObject nulls = plan.read(resultSet, Json.createBuilderFactory(null));
+                    assertEquals(14, nulls.size());
+                    nulls.forEach((name, value) -> assertEquals(JsonValue.NULL, value, name));
+                    assertFalse(resultSet.next());
+                }
+            } finally {
+                statement.executeUpdate("drop table types");
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.talend.components.jdbc.input;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.Checkpoint;
+import org.talend.components.jdbc.DerbyExtension;
+import org.talend.components.jdbc.WithDerby;
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.components.jdbc.service.CheckpointStore;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.junit.BaseComponentsHandler;
+import org.talend.sdk.component.junit5.Injected;
+import org.talend.sdk.component.junit5.WithComponents;
+import org.talend.sdk.component.runtime.manager.chain.Job;
+
+@WithDerby(onStartSQLScript = "derby/create.sql", onShutdownSQLScript = "derby/delete.sql")
+@WithComponents("org.talend.components.jdbc") //component package
+class IncrementalInputEmitterTest {
+
+    @Injected
+    private BaseComponentsHandler componentsHandler;
+
+    @Test
+    @DisplayName("Read only the rows added since the previous run")
+    void incrementalRead(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        final CheckpointStore store = componentsHandler.findService(JdbcService.class).getCheckpointStore();
+        final String checkpointName = "users-" + UUID.randomUUID();
+        final QueryDataset dataset = newDataset(derbyInfo, checkpointName);
+        try {
+            assertNull(store.load(checkpointName));
+            assertEquals(asList(1, 2, 3, 4), readIds(dataset));
+            assertEquals("4", store.load(checkpointName).getValue());
+
+            try (final Connection connection = DriverManager.getConnection(url(derbyInfo), "sa", "sa");
+                    final Statement statement = connection.createStatement()) {
+                statement.executeUpdate("insert into users(id, name) values (5, 'user5')");
+            }
+            assertEquals(asList(5), readIds(dataset));
+            assertEquals(new Checkpoint("5", java.sql.Types.INTEGER), store.load(checkpointName));
+
+            // nothing new, the checkpoint is kept
+            assertEquals(0, readIds(dataset).size());
+            assertEquals("5", store.load(checkpointName).getValue());
+        } finally {
+            store.remove(checkpointName);
+        }
+    }
+
+    @Test
+    @DisplayName("A timestamp checkpoint keeps the sub millisecond digits of the last row")
+    void timestampCheckpoint(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        final JdbcService service = componentsHandler.findService(JdbcService.class);
+        final String checkpointName = "events-" + UUID.randomUUID();
+        final QueryDataset dataset = newDataset(derbyInfo, checkpointName);
+        dataset.setSqlQuery("select id, created from events");
+        dataset.setIncrementalColumn("created");
+        try (final Connection connection = DriverManager.getConnection(url(derbyInfo), "sa", "sa");
+                final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table events(id int, created timestamp)");
+            statement.executeUpdate("insert into events values (1, '2018-06-11 12:00:00.123000')");
+            statement.executeUpdate("insert into events values (2, '2018-06-11 12:00:00.123456')");
+        }
+        try {
+            assertEquals(asList(1, 2), readDirectly(service, dataset));
+            assertEquals(new Checkpoint("2018-06-11 12:00:00.123456", java.sql.Types.TIMESTAMP),
+                    service.getCheckpointStore().load(checkpointName));
+            // the last row is not read again
+            assertEquals(0, readDirectly(service, dataset).size());
+        } finally {
+            service.getCheckpointStore().remove(checkpointName);
+            try (final Connection connection = DriverManager.getConnection(url(derbyInfo), "sa", "sa");
+                    final Statement statement = connection.createStatement()) {
+                statement.executeUpdate("drop table events");
+            }
+        }
+    }
+
+    private List<Integer> readDirectly(final JdbcService service, final QueryDataset dataset) {
+        final InputEmitter emitter = new InputEmitter(dataset, service, Json.createBuilderFactory(null),
+                componentsHandler.findService(I18nMessage.class));
+        final List<Integer> ids = new ArrayList<>();
+        emitter.init();
+        try {
+            JsonObject record;
+            while ((record = emitter.next()) != null) {
+                ids.add(record.getInt("ID"));
+            }
+        } finally {
+            emitter.close();
+        }
+        return ids;
+    }
+
+    private List<Integer> readIds(final QueryDataset dataset) {
+        componentsHandler.resetState();
+        final String config = configurationByExample().forInstance(dataset).configured().toQueryString();
+        Job.components()
+                .component("jdbcInput", "Jdbc://Input?" + config)
+                .component("collector", "test://collector")
+                .connections()
+                .from("jdbcInput").to("collector")
+                .build()
+                .run();
+        return componentsHandler.getCollectedData(JsonObject.class)
+                .stream()
+                .map(r -> r.getInt("ID"))
+                .collect(toList());
+    }
+
+    private QueryDataset newDataset(final DerbyExtension.DerbyInfo derbyInfo, final String checkpointName) {
+        final BasicDatastore connection = new BasicDatastore();
+        connection.setUserId("sa");
+        connection.setPassword("sa");
+        connection.setDbType("DERBY");
+        connection.setJdbcUrl(url(derbyInfo));
+        final QueryDataset dataset = new QueryDataset();
+        dataset.setConnection(connection);
+        dataset.setSourceType(QueryDataset.SourceType.QUERY);
+        dataset.setSqlQuery("select id, name from users");
+        dataset.setIncremental(true);
+        dataset.setIncrementalColumn("id");
+        dataset.setCheckpointName(checkpointName);
+        return dataset;
+    }
+
+    private String url(final DerbyExtension.DerbyInfo derbyInfo) {
+        return "jdbc:derby://localhost:" + derbyInfo.getPort() + "/" + derbyInfo.getDbName();
+    }
+}
@@ -151,6 +151,33 @@ class JdbcInputEmitterTest {
                 records.stream().map(r -> r.getString("NAME")).collect(toList()));
     }
 
+    @Test
+    @DisplayName("Read the rows ahead in a background thread")
+    void readAhead(final DerbyExtension.DerbyInfo derbyInfo) {
+        final BasicDatastore connection = new BasicDatastore();
+        connection.setUserId("sa");
+        connection.setPassword("sa");
+        connection.setDbType("DERBY");
+        connection.setJdbcUrl("jdbc:derby://localhost:" + derbyInfo.getPort() + "/" + derbyInfo.getDbName());
+        final QueryDataset dataset = new QueryDataset();
+        dataset.setConnection(connection);
+        dataset.setSourceType(QueryDataset.SourceType.TABLE_NAME);
+        dataset.setTableName("users");
+        dataset.setPrefetchSize(2);
+        final String config = configurationByExample().forInstance(dataset).configured().toQueryString();
+        Job.components()
+                .component("jdbcInput", "Jdbc://Input?" + config)
+                .component("collector", "test://collector")
+                .connections()
+                .from("jdbcInput").to("collector")
+                .build()
+                .run();
+
+        final List<JsonObject> records = componentsHandler.getCollectedData(JsonObject.class);
+        assertEquals(asList("user1", "user2", "user3", "user4"),
+                records.stream().map(r -> r.getString("NAME")).collect(toList()));
+    }
+
     @Test
     @DisplayName("Execute query using invalid table name")
     void invalidTableName(final DerbyExtension.DerbyInfo derbyInfo) {
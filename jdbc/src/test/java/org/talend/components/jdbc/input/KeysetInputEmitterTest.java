@@ -0,0 +1,103 @@
+package org.talend.components.jdbc.input;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.Checkpoint;
+import org.talend.components.jdbc.DerbyExtension;
+import org.talend.components.jdbc.WithDerby;
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.components.jdbc.service.CheckpointStore;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.junit.BaseComponentsHandler;
+import org.talend.sdk.component.junit5.Injected;
+import org.talend.sdk.component.junit5.WithComponents;
+import org.talend.sdk.component.runtime.manager.chain.Job;
+
+@WithDerby(onStartSQLScript = "derby/create.sql", onShutdownSQLScript = "derby/delete.sql")
+@WithComponents("org.talend.components.jdbc") //component package
+class KeysetInputEmitterTest {
+
+    @Injected
+    private BaseComponentsHandler componentsHandler;
+
+    @Test
+    @DisplayName("Read a table by pages of its primary key")
+    void readByPages(final DerbyExtension.DerbyInfo derbyInfo) {
+        final KeysetInputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setPageSize(3);
+        assertEquals(asList(1, 2, 3, 4), readIds(configuration));
+
+        configuration.setPageSize(2); // the last page is full
+        assertEquals(asList(1, 2, 3, 4), readIds(configuration));
+    }
+
+    @Test
+    @DisplayName("Resume the read after the saved key")
+    void resume(final DerbyExtension.DerbyInfo derbyInfo) {
+        final CheckpointStore store = componentsHandler.findService(JdbcService.class).getCheckpointStore();
+        final String checkpointName = "users-" + UUID.randomUUID();
+        final KeysetInputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setKeyColumn("id");
+        configuration.setPageSize(1);
+        configuration.setCheckpointName(checkpointName);
+        try {
+            store.save(checkpointName, new Checkpoint("2", Types.INTEGER));
+            assertEquals(asList(3, 4), readIds(configuration));
+            assertNull(store.load(checkpointName)); // the read completed
+        } finally {
+            store.remove(checkpointName);
+        }
+    }
+
+    @Test
+    @DisplayName("Only tables are read by pages")
+    void query(final DerbyExtension.DerbyInfo derbyInfo) {
+        final QueryDataset dataset = newConfiguration(derbyInfo).getDataset();
+        dataset.setSourceType(QueryDataset.SourceType.QUERY);
+        dataset.setSqlQuery("select * from users");
+        final JdbcService service = componentsHandler.findService(JdbcService.class);
+        assertThrows(IllegalStateException.class, () -> service.createPageQuery(dataset, "id", false));
+    }
+
+    private List<Integer> readIds(final KeysetInputConfiguration configuration) {
+        componentsHandler.resetState();
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components()
+                .component("jdbcInput", "Jdbc://KeysetInput?" + config)
+                .component("collector", "test://collector")
+                .connections()
+                .from("jdbcInput").to("collector")
+                .build()
+                .run();
+        return componentsHandler.getCollectedData(JsonObject.class)
+                .stream()
+                .map(r -> r.getInt("ID"))
+                .collect(toList());
+    }
+
+    private KeysetInputConfiguration newConfiguration(final DerbyExtension.DerbyInfo derbyInfo) {
+        final BasicDatastore connection = new BasicDatastore();
+        connection.setUserId("sa");
+        connection.setPassword("sa");
+        connection.setDbType("DERBY");
+        connection.setJdbcUrl("jdbc:derby://localhost:" + derbyInfo.getPort() + "/" + derbyInfo.getDbName());
+        final KeysetInputConfiguration configuration = new KeysetInputConfiguration();
+        configuration.setConnection(connection);
+        configuration.setTableName("users");
+        return configuration;
+    }
+}
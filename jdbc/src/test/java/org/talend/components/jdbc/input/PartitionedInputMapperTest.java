@@ -0,0 +1,113 @@
+package org.talend.components.jdbc.input;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.DerbyExtension;
+import org.talend.components.jdbc.WithDerby;
+import org.talend.components.jdbc.dataset.QueryDataset;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.junit.BaseComponentsHandler;
+import org.talend.sdk.component.junit5.Injected;
+import org.talend.sdk.component.junit5.WithComponents;
+import org.talend.sdk.component.runtime.manager.chain.Job;
+
+@WithDerby(onStartSQLScript = "derby/create.sql", onShutdownSQLScript = "derby/delete.sql")
+@WithComponents("org.talend.components.jdbc") //component package
+class PartitionedInputMapperTest {
+
+    @Injected
+    private BaseComponentsHandler componentsHandler;
+
+    @Test
+    @DisplayName("Read a table by partitions")
+    void readPartitionedTable(final DerbyExtension.DerbyInfo derbyInfo) {
+        final PartitionedInputConfiguration configuration = new PartitionedInputConfiguration();
+        configuration.setConnection(newConnection(derbyInfo));
+        configuration.setTableName("users");
+        configuration.setSplitColumn("id");
+        configuration.setPartitionCount(3);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components()
+                .component("jdbcInput", "Jdbc://PartitionedInput?" + config)
+                .component("collector", "test://collector")
+                .connections()
+                .from("jdbcInput").to("collector")
+                .build()
+                .run();
+
+        final List<JsonObject> records = componentsHandler.getCollectedData(JsonObject.class);
+        assertNotNull(records);
+        assertEquals(4, records.size());
+        assertEquals(asList("user1", "user2", "user3", "user4"),
+                records.stream().map(r -> r.getString("NAME")).sorted().collect(toList()));
+    }
+
+    @Test
+    @DisplayName("Split a table in key ranges")
+    void splitTable(final DerbyExtension.DerbyInfo derbyInfo) {
+        final PartitionedInputConfiguration configuration = new PartitionedInputConfiguration();
+        configuration.setConnection(newConnection(derbyInfo));
+        configuration.setTableName("users");
+        configuration.setSplitColumn("id");
+        configuration.setPartitionCount(3);
+        final PartitionedInputMapper mapper = new PartitionedInputMapper(configuration,
+                componentsHandler.findService(JdbcService.class),
+                componentsHandler.findService(JsonBuilderFactory.class),
+                componentsHandler.findService(I18nMessage.class));
+        assertEquals(4, mapper.estimateSize());
+
+        final List<PartitionedInputMapper> partitions = mapper.split(1);
+        assertEquals(3, partitions.size());
+        final List<List<Integer>> ids = new ArrayList<>();
+        for (final PartitionedInputMapper partition : partitions) {
+            final List<Integer> partitionIds = new ArrayList<>();
+            final InputEmitter emitter = partition.createWorker();
+            emitter.init();
+            try {
+                JsonObject record;
+                while ((record = emitter.next()) != null) {
+                    partitionIds.add(record.getInt("ID"));
+                }
+            } finally {
+                emitter.close();
+            }
+            ids.add(partitionIds);
+        }
+        assertEquals(asList(asList(1), asList(2), asList(3, 4)), ids);
+    }
+
+    @Test
+    @DisplayName("Partitioned read of a query")
+    void partitionedQuery(final DerbyExtension.DerbyInfo derbyInfo) {
+        final QueryDataset dataset = new QueryDataset();
+        dataset.setConnection(newConnection(derbyInfo));
+        dataset.setSourceType(QueryDataset.SourceType.QUERY);
+        dataset.setSqlQuery("select * from users");
+        final JdbcService service = componentsHandler.findService(JdbcService.class);
+        assertThrows(IllegalStateException.class, () -> service.createBoundsQuery(dataset, "id"));
+    }
+
+    private BasicDatastore newConnection(final DerbyExtension.DerbyInfo derbyInfo) {
+        final BasicDatastore connection = new BasicDatastore();
+        connection.setUserId("sa");
+        connection.setPassword("sa");
+        connection.setDbType("DERBY");
+        connection.setJdbcUrl("jdbc:derby://localhost:" + derbyInfo.getPort() + "/" + derbyInfo.getDbName());
+        return connection;
+    }
+}
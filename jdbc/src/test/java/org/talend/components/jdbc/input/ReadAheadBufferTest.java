@@ -0,0 +1,68 @@
+package org.talend.components.jdbc.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReadAheadBufferTest {
+
+    private final JsonBuilderFactory jsonBuilderFactory = Json.createBuilderFactory(null);
+
+    @Test
+    @DisplayName("Rows are returned in order")
+    void order() {
+        final AtomicInteger rows = new AtomicInteger();
+        try (final ReadAheadBuffer buffer = new ReadAheadBuffer(2,
+                () -> rows.get() < 10 ? row(rows.incrementAndGet()) : null, "test")) {
+            buffer.start();
+            for (int i = 1; i <= 10; i++) {
+                assertEquals(i, buffer.next().getInt("id"));
+            }
+            assertNull(buffer.next());
+            assertNull(buffer.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Reader errors are thrown after the rows read before them")
+    void error() {
+        final AtomicInteger rows = new AtomicInteger();
+        try (final ReadAheadBuffer buffer = new ReadAheadBuffer(10, () -> {
+            if (rows.get() == 2) {
+                throw new SQLException("connection lost");
+            }
+            return row(rows.incrementAndGet());
+        }, "test")) {
+            buffer.start();
+            assertEquals(1, buffer.next().getInt("id"));
+            assertEquals(2, buffer.next().getInt("id"));
+            assertThrows(IllegalStateException.class, buffer::next);
+        }
+    }
+
+    @Test
+    @DisplayName("Close stops a reader waiting for room in the buffer")
+    void close() {
+        final AtomicInteger rows = new AtomicInteger();
+        final ReadAheadBuffer buffer = new ReadAheadBuffer(1, () -> row(rows.incrementAndGet()), "test");
+        buffer.start();
+        assertEquals(1, buffer.next().getInt("id"));
+        buffer.close();
+        assertFalse(buffer.isReading());
+    }
+
+    private JsonObject row(final int id) {
+        return jsonBuilderFactory.createObjectBuilder().add("id", id).build();
+    }
+}
@@ -0,0 +1,152 @@
+package org.talend.components.jdbc.output;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.talend.components.jdbc.DerbyExtension;
+import org.talend.components.jdbc.WithDerby;
+import org.talend.components.jdbc.datastore.BasicDatastore;
+import org.talend.sdk.component.junit.BaseComponentsHandler;
+import org.talend.sdk.component.junit5.Injected;
+import org.talend.sdk.component.junit5.WithComponents;
+import org.talend.sdk.component.runtime.manager.chain.Job;
+
+@WithDerby(onStartSQLScript = "derby/create.sql", onShutdownSQLScript = "derby/delete.sql")
+@WithComponents("org.talend.components.jdbc") //component package
+class JdbcOutputProcessorTest {
+
+    private final JsonBuilderFactory jsonBuilderFactory = Json.createBuilderFactory(null);
+
+    @Injected
+    private BaseComponentsHandler componentsHandler;
+
+    @Test
+    @DisplayName("Insert records by batches")
+    void insert(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        final OutputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setBatchSize(2);
+        configuration.setCommitInterval(3);
+        run(configuration, IntStream.range(100, 107)
+                .mapToObj(i -> user(i, "user" + i))
+                .collect(Collectors.toList()));
+
+        assertEquals(7, count(derbyInfo, "select count(*) from users where id >= 100 and id < 107"));
+    }
+
+    @Test
+    @DisplayName("Insert records with the native loader")
+    void bulkLoad(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        final OutputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setBulkLoad(true);
+        configuration.setCommitInterval(4);
+        final List<JsonObject> records = IntStream.range(200, 209)
+                .mapToObj(i -> user(i, "bulk" + i))
+                .collect(Collectors.toList());
+        records.add(jsonBuilderFactory.createObjectBuilder().add("ID", 209).addNull("NAME").build());
+        records.add(user(210, "a \"b\", c"));
+        run(configuration, records);
+
+        assertEquals(11, count(derbyInfo, "select count(*) from users where id >= 200 and id <= 210"));
+        assertEquals(1, count(derbyInfo, "select count(*) from users where id = 209 and name is null"));
+        assertEquals(1, count(derbyInfo, "select count(*) from users where id = 210 and name = 'a \"b\", c'"));
+    }
+
+    @Test
+    @DisplayName("Bulk load only inserts")
+    void bulkLoadUpdate(final DerbyExtension.DerbyInfo derbyInfo) {
+        final OutputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setBulkLoad(true);
+        configuration.setActionOnData(OutputConfiguration.ActionOnData.UPDATE);
+        configuration.setKeys(singletonList("id"));
+        assertThrows(IllegalStateException.class, () -> run(configuration, singletonList(user(1, "user1"))));
+    }
+
+    @Test
+    @DisplayName("Update records by key")
+    void update(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        final OutputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setActionOnData(OutputConfiguration.ActionOnData.UPDATE);
+        configuration.setKeys(singletonList("id"));
+        run(configuration, asList(user(2, "updated2"), user(3, "updated3")));
+
+        assertEquals(2, count(derbyInfo, "select count(*) from users where name like 'updated%'"));
+    }
+
+    @Test
+    @DisplayName("Delete records by key")
+    void delete(final DerbyExtension.DerbyInfo derbyInfo) throws SQLException {
+        final OutputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setActionOnData(OutputConfiguration.ActionOnData.DELETE);
+        configuration.setKeys(singletonList("id"));
+        run(configuration, singletonList(jsonBuilderFactory.createObjectBuilder().add("ID", 4).build()));
+
+        assertEquals(0, count(derbyInfo, "select count(*) from users where id = 4"));
+    }
+
+    @Test
+    @DisplayName("Update without key columns")
+    void updateWithoutKeys(final DerbyExtension.DerbyInfo derbyInfo) {
+        final OutputConfiguration configuration = newConfiguration(derbyInfo);
+        configuration.setActionOnData(OutputConfiguration.ActionOnData.UPDATE);
+        assertThrows(IllegalStateException.class, () -> run(configuration, singletonList(user(1, "user1"))));
+    }
+
+    private void run(final OutputConfiguration configuration, final List<JsonObject> records) {
+        componentsHandler.setInputData(records);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        Job.components()
+                .component("emitter", "test://emitter")
+                .component("jdbcOutput", "Jdbc://Output?" + config)
+                .connections()
+                .from("emitter").to("jdbcOutput")
+                .build()
+                .run();
+    }
+
+    private JsonObject user(final int id, final String name) {
+        return jsonBuilderFactory.createObjectBuilder().add("ID", id).add("NAME", name).build();
+    }
+
+    private OutputConfiguration newConfiguration(final DerbyExtension.DerbyInfo derbyInfo) {
+        final BasicDatastore connection = new BasicDatastore();
+        connection.setUserId("sa");
+        connection.setPassword("sa");
+        connection.setDbType("DERBY");
+        connection.setJdbcUrl(url(derbyInfo));
+        final OutputConfiguration configuration = new OutputConfiguration();
+        configuration.setConnection(connection);
+        configuration.setTableName("users");
+        return configuration;
+    }
+
+    private int count(final DerbyExtension.DerbyInfo derbyInfo, final String query) throws SQLException {
+        try (final Connection connection = DriverManager.getConnection(url(derbyInfo), "sa", "sa");
+                final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private String url(final DerbyExtension.DerbyInfo derbyInfo) {
+        return "jdbc:derby://localhost:" + derbyInfo.getPort() + "/" + derbyInfo.getDbName();
+    }
+}
@@ -32,8 +32,8 @@ class ActionServiceTest {
     void loadSupportedDataBaseTypes() {
         final Values values = myService.loadSupportedDataBaseTypes();
         assertNotNull(values);
-        assertEquals(3, values.getItems().size());
-        assertEquals(asList("MYSQL", "DERBY", "ORACLE"),
+        assertEquals(4, values.getItems().size());
+        assertEquals(asList("MYSQL", "DERBY", "ORACLE", "POSTGRESQL"),
                 values.getItems().stream().map(Values.Item::getId).collect(toList()));
     }
 
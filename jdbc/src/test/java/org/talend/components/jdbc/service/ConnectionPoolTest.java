@@ -0,0 +1,94 @@
+package org.talend.components.jdbc.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+
+    @Test
+    @DisplayName("Closed connections are reused")
+    void reuse() throws SQLException {
+        try (final ConnectionPool pool = new ConnectionPool("test", () -> fakeConnection(new AtomicBoolean(true)),
+                2, 60_000, 1, 100)) {
+            final Connection first = pool.borrow();
+            first.close();
+            assertTrue(first.isClosed());
+            pool.borrow().close();
+            assertEquals(1, pool.getMetrics().getCreated());
+            assertEquals(2, pool.getMetrics().getBorrowed());
+            assertEquals(1, pool.getMetrics().getIdle());
+            assertEquals(0, pool.getMetrics().getActive());
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid connections are replaced when borrowed")
+    void validation() throws SQLException {
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        try (final ConnectionPool pool = new ConnectionPool("test", () -> fakeConnection(valid), 2, 60_000, 1,
+                100)) {
+            pool.borrow().close();
+            valid.set(false);
+            pool.borrow().close();
+            assertEquals(2, pool.getMetrics().getCreated());
+            assertEquals(1, pool.getMetrics().getInvalid());
+        }
+    }
+
+    @Test
+    @DisplayName("Borrow times out when the pool is exhausted")
+    void exhausted() throws SQLException {
+        try (final ConnectionPool pool = new ConnectionPool("test", () -> fakeConnection(new AtomicBoolean(true)),
+                1, 60_000, 1, 100)) {
+            final Connection connection = pool.borrow();
+            assertThrows(SQLTimeoutException.class, pool::borrow);
+            connection.close();
+            pool.borrow().close();
+        }
+    }
+
+    @Test
+    @DisplayName("Idle connections are evicted")
+    void eviction() throws SQLException, InterruptedException {
+        try (final ConnectionPool pool = new ConnectionPool("test", () -> fakeConnection(new AtomicBoolean(true)),
+                1, 10, 1, 100)) {
+            pool.borrow().close();
+            Thread.sleep(50);
+            pool.evictIdle();
+            assertEquals(0, pool.getMetrics().getIdle());
+            assertEquals(1, pool.getMetrics().getEvicted());
+        }
+    }
+
+    private static Connection fakeConnection(final AtomicBoolean valid) {
+        final AtomicBoolean closed = new AtomicBoolean();
+        return Connection.class.cast(Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "isValid":
+                        return valid.get() && !closed.get();
+                    case "isClosed":
+                        return closed.get();
+                    case "close":
+                        closed.set(true);
+                        return null;
+                    case "getAutoCommit":
+                        return true;
+                    case "isReadOnly":
+                        return false;
+                    default:
+                        return null;
+                    }
+                }));
+    }
+}
@@ -0,0 +1,319 @@
+package org.talend.components.salesforce;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streaming RFC 4180 reader of the bulk query result files.
+ * The bytes are read from a channel into a large buffer and decoded from UTF-8 in bulk into a window of chars, a
+ * record is kept as the offsets of its fields in this window and a field value is only created when it is read.
+ * Empty lines are skipped, the quoted values can hold delimiters, quotes and line breaks.
+ */
+@Slf4j
+public class BulkCsvReader implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * the read buffer must hold at least one encoded char
+     */
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    /**
+     * the limits of the safety switch, a column or a column count greater than them is considered a corrupted file
+     */
+    static final int MAX_COLUMN_LENGTH = 100_000;
+
+    static final int MAX_COLUMN_COUNT = 100_000;
+
+    private static final char DELIMITER = ',';
+
+    private static final char QUOTE = '"';
+
+    private final ReadableByteChannel channel;
+
+    private final ByteBuffer bytes;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private char[] chars;
+
+    /**
+     * the decoded chars are in [0, limit), the current record starts at recordStart and the parser is at pos
+     */
+    private int limit;
+
+    private int recordStart;
+
+    private int pos;
+
+    private boolean endOfInput;
+
+    /**
+     * true once all the input is decoded, the decoder is flushed then
+     */
+    private boolean drained;
+
+    private boolean safetySwitch = true;
+
+    /**
+     * the fields of the current record, their offsets are relative to the record start so that they stay valid when
+     * the window is compacted
+     */
+    private int columnCount;
+
+    private int[] starts = new int[16];
+
+    private int[] ends = new int[16];
+
+    private boolean[] escaped = new boolean[16];
+
+    private int fieldStart;
+
+    private long recordNumber;
+
+    public BulkCsvReader(final InputStream input) {
+        this(Channels.newChannel(input), DEFAULT_BUFFER_SIZE, false);
+    }
+
+    /**
+     * @param bufferSize the size in bytes of the read buffer, the char window starts with the same size
+     * @param directBuffer true to read the channel into a direct buffer
+     */
+    public BulkCsvReader(final ReadableByteChannel channel, final int bufferSize, final boolean directBuffer) {
+        final int size = Math.max(MIN_BUFFER_SIZE, bufferSize);
+        this.channel = channel;
+        this.bytes = directBuffer ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        this.chars = new char[size];
+    }
+
+    /**
+     * @param safetySwitch false to accept the columns longer than 100,000 chars and the records of more than
+     * 100,000 columns
+     */
+    public void setSafetySwitch(final boolean safetySwitch) {
+        this.safetySwitch = safetySwitch;
+    }
+
+    /**
+     * Read the next record, its values are available until the next call.
+     *
+     * @return false at the end of the file
+     */
+    public boolean readRecord() throws IOException {
+        columnCount = 0;
+        while (true) { // skips the empty lines
+            if (pos == limit) {
+                recordStart = pos;
+                if (!fill()) {
+                    return false;
+                }
+            }
+            final char c = chars[pos];
+            if (c != '\n' && c != '\r') {
+                break;
+            }
+            pos++;
+        }
+        recordStart = pos;
+        recordNumber++;
+        while (readField()) {
+            // reads the fields until the end of the record
+        }
+        return true;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return the value of a column of the current record, created at each call
+     */
+    public String get(final int column) {
+        final int start = recordStart + starts[column];
+        final int length = ends[column] - starts[column];
+        if (!escaped[column]) {
+            return new String(chars, start, length);
+        }
+        final StringBuilder value = new StringBuilder(length);
+        for (int i = start; i < start + length; i++) {
+            value.append(chars[i]);
+            if (chars[i] == QUOTE) { // the first quote of an escaped pair
+                i++;
+            }
+        }
+        return value.toString();
+    }
+
+    public String[] getValues() {
+        final String[] values = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return true if a delimiter follows the field, false at the end of the record
+     */
+    private boolean readField() throws IOException {
+        if (pos == limit && !fill()) { // a delimiter ends the file
+            fieldStart = pos - recordStart;
+            addField(fieldStart, fieldStart, false);
+            return false;
+        }
+        if (chars[pos] == QUOTE) {
+            pos++;
+            fieldStart = pos - recordStart;
+            boolean quotes = false;
+            while (true) {
+                if (pos == limit && !fill()) { // no closing quote
+                    addField(fieldStart, pos - recordStart, quotes);
+                    return false;
+                }
+                if (chars[pos++] == QUOTE) {
+                    if (pos == limit && !fill()) {
+                        addField(fieldStart, pos - 1 - recordStart, quotes);
+                        return false;
+                    }
+                    if (chars[pos] != QUOTE) {
+                        addField(fieldStart, pos - 1 - recordStart, quotes);
+                        return skipToDelimiter();
+                    }
+                    quotes = true;
+                    pos++;
+                }
+            }
+        }
+        fieldStart = pos - recordStart;
+        while (true) {
+            if (pos == limit && !fill()) {
+                addField(fieldStart, pos - recordStart, false);
+                return false;
+            }
+            final char c = chars[pos];
+            if (c == DELIMITER) {
+                addField(fieldStart, pos++ - recordStart, false);
+                return true;
+            }
+            if (c == '\n' || c == '\r') { // the next record skips the rest of the line break
+                addField(fieldStart, pos++ - recordStart, false);
+                return false;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Ignore the chars between a closing quote and the next delimiter, there is none in a valid file.
+     */
+    private boolean skipToDelimiter() throws IOException {
+        while (pos < limit || fill()) {
+            final char c = chars[pos++];
+            if (c == DELIMITER) {
+                return true;
+            }
+            if (c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void addField(final int start, final int end, final boolean quotes) throws IOException {
+        if (safetySwitch) {
+            if (end - start > MAX_COLUMN_LENGTH) {
+                throw columnTooLong();
+            }
+            if (columnCount >= MAX_COLUMN_COUNT) {
+                throw new IOException("Maximum column count of " + MAX_COLUMN_COUNT + " exceeded in record "
+                        + recordNumber + ". Set the safety switch to false to read such records.");
+            }
+        }
+        if (columnCount == starts.length) {
+            starts = Arrays.copyOf(starts, columnCount * 2);
+            ends = Arrays.copyOf(ends, columnCount * 2);
+            escaped = Arrays.copyOf(escaped, columnCount * 2);
+        }
+        starts[columnCount] = start;
+        ends[columnCount] = end;
+        escaped[columnCount++] = quotes;
+    }
+
+    private IOException columnTooLong() {
+        return new IOException("Maximum column length of " + MAX_COLUMN_LENGTH + " exceeded in column "
+                + (columnCount + 1) + " in record " + recordNumber
+                + ". Set the safety switch to false to read such columns.");
+    }
+
+    /**
+     * Decode more chars after the limit, the current record is moved to the start of the window first and the window
+     * grows when the record fills it.
+     *
+     * @return false at the end of the input
+     */
+    private boolean fill() throws IOException {
+        if (recordStart > 0) {
+            System.arraycopy(chars, recordStart, chars, 0, limit - recordStart);
+            limit -= recordStart;
+            pos -= recordStart;
+            recordStart = 0;
+        }
+        if (drained) {
+            return false;
+        }
+        while (true) {
+            if (limit == chars.length) {
+                if (safetySwitch && pos - fieldStart > MAX_COLUMN_LENGTH) {
+                    throw columnTooLong();
+                }
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+            if (!endOfInput && channel.read(bytes) < 0) {
+                endOfInput = true;
+            }
+            bytes.flip();
+            final CharBuffer out = CharBuffer.wrap(chars, limit, chars.length - limit);
+            CoderResult result = decoder.decode(bytes, out, endOfInput);
+            if (endOfInput && result.isUnderflow()) {
+                result = decoder.flush(out);
+            }
+            bytes.compact();
+            final int decoded = out.position() - limit;
+            limit = out.position();
+            if (decoded > 0) {
+                return true;
+            }
+            if (endOfInput && result.isUnderflow()) {
+                drained = true;
+                return false;
+            }
+            if (result.isOverflow()) { // not enough room for a surrogate pair
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+        }
+    }
+}
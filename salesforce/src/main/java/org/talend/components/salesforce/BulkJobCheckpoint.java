@@ -0,0 +1,26 @@
+package org.talend.components.salesforce;
+
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Data;
+
+/**
+ * A bulk query job saved by a read so that the next run of an interrupted read reattaches to it instead of running
+ * the query again. The batches are unknown until the query batch is processed, the consumed results are the result
+ * files whose records were all emitted.
+ */
+@Data
+public class BulkJobCheckpoint implements Serializable {
+
+    private final String query;
+
+    private final String jobId;
+
+    private List<String> batchIds;
+
+    private final Set<String> consumedResultIds = new LinkedHashSet<>();
+
+}
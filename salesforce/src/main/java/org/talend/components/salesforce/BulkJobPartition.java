@@ -0,0 +1,24 @@
+package org.talend.components.salesforce;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Some batches of a bulk query job, read by one emitter. The ids are the ones of the pk chunk batches or the id of
+ * the query batch when the job is not chunked.
+ */
+@Data
+public class BulkJobPartition implements Serializable {
+
+    private final String jobId;
+
+    private final List<String> batchIds;
+
+    /**
+     * the chunk size the job was created with, the maximum number of records of a batch
+     */
+    private final int chunkSize;
+
+}
@@ -0,0 +1,169 @@
+package org.talend.components.salesforce;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.ws.ConnectionException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Download and parse several bulk query result files in parallel into a bounded queue of records.
+ * Each file is read by a single thread so the records of a file keep their order, the records of different files
+ * are interleaved. The memory used is capped by the queue capacity.
+ */
+@Slf4j
+public class BulkResultQueue implements AutoCloseable {
+
+    /**
+     * marks the end of the records, compared by identity
+     */
+    private static final JsonObject END = JsonValue.EMPTY_JSON_OBJECT;
+
+    private static final long OFFER_TIMEOUT = 100;
+
+    private static final long CLOSE_TIMEOUT = 5000;
+
+    private final ResultSource source;
+
+    private final int concurrency;
+
+    private final BlockingQueue<JsonObject> records;
+
+    private final ExecutorService downloaders;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    private volatile boolean closed;
+
+    private boolean finished;
+
+    public BulkResultQueue(final ResultSource source, final int concurrency, final int capacity) {
+        this.source = source;
+        this.concurrency = concurrency;
+        this.records = new ArrayBlockingQueue<>(capacity);
+        final AtomicInteger threads = new AtomicInteger();
+        this.downloaders = Executors.newFixedThreadPool(concurrency, r -> {
+            final Thread thread = new Thread(r, "salesforce-bulk-download-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        running.set(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            downloaders.submit(this::download);
+        }
+    }
+
+    /**
+     * @return the next record or null when all the result files are read
+     */
+    public JsonObject next() {
+        if (finished) {
+            return null;
+        }
+        final JsonObject record;
+        try {
+            record = records.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (record != END) {
+            return record;
+        }
+        finished = true;
+        final Throwable cause = error.get();
+        if (cause != null) {
+            if (RuntimeException.class.isInstance(cause)) {
+                throw RuntimeException.class.cast(cause);
+            }
+            throw new IllegalStateException(cause);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        downloaders.shutdownNow();
+        records.clear(); // releases the downloaders waiting for some room
+        try {
+            if (!downloaders.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn("Bulk result downloads are still running after {}ms", CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void download() {
+        try {
+            BulkResultSet resultSet;
+            while (isActive() && (resultSet = source.nextResultSet()) != null) {
+                try {
+                    JsonObject record;
+                    while (isActive() && (record = resultSet.next()) != null) {
+                        if (!put(record)) {
+                            return;
+                        }
+                    }
+                } finally {
+                    resultSet.close();
+                }
+            }
+        } catch (Throwable t) {
+            if (!closed) {
+                error.compareAndSet(null, t);
+            }
+        } finally {
+            // the last downloader, or the first failing one, ends the records
+            if (running.decrementAndGet() == 0 || error.get() != null) {
+                put(END);
+            }
+        }
+    }
+
+    private boolean isActive() {
+        return !closed && error.get() == null;
+    }
+
+    /**
+     * @return false if the queue was closed before the record could be added
+     */
+    private boolean put(final JsonObject record) {
+        try {
+            while (!closed) {
+                if (records.offer(record, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    public interface ResultSource {
+
+        /**
+         * @return the next result file to read or null when all of them were handed out
+         */
+        BulkResultSet nextResultSet() throws AsyncApiException, IOException, ConnectionException;
+    }
+}
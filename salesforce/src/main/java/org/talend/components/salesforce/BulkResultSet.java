@@ -11,38 +11,56 @@ import javax.json.JsonObjectBuilder;
 
 public class BulkResultSet {
 
-    private final com.csvreader.CsvReader reader;
+    private final BulkCsvReader reader;
 
-    private final List<String> header;
+    /**
+     * The record field names, without case insensitive duplicates and sorted case insensitively
+     */
+    private final String[] fieldNames;
+
+    /**
+     * The index of the column read for each field, the last one when several columns have the same field name
+     */
+    private final int[] fieldColumns;
 
     private JsonBuilderFactory jsonBuilderFactory;
 
-    public BulkResultSet(com.csvreader.CsvReader reader, List<String> header,
+    public BulkResultSet(BulkCsvReader reader, List<String> header,
             final JsonBuilderFactory jsonBuilderFactory) {
         this.reader = reader;
-        this.header = header;
         this.jsonBuilderFactory = jsonBuilderFactory;
+
+        final Map<String, Integer> fields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                //We replace the . with _ to add support of relationShip Queries
+                //The relationShip Queries Use . in Salesforce and we use _ in Talend (Studio)
+                //So Account.Name in SF will be Account_Name in Talend
+                fields.put(header.get(i).replace('.', '_'), i);
+            }
+        }
+        this.fieldNames = new String[fields.size()];
+        this.fieldColumns = new int[fields.size()];
+        int field = 0;
+        for (Map.Entry<String, Integer> entry : fields.entrySet()) {
+            fieldNames[field] = entry.getKey();
+            fieldColumns[field++] = entry.getValue();
+        }
     }
 
     public JsonObject next() {
         try {
             boolean hasNext = reader.readRecord();
-            String[] row;
             if (hasNext) {
-                if ((row = reader.getValues()) != null) {
-                    Map<String, String> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-                    for (int i = 0; i < this.header.size(); i++) {
-                        //We replace the . with _ to add support of relationShip Queries
-                        //The relationShip Queries Use . in Salesforce and we use _ in Talend (Studio)
-                        //So Account.Name in SF will be Account_Name in Talend
-                        result.put(header.get(i).replace('.', '_'), row[i]);
+                final int columnCount = reader.getColumnCount();
+                final JsonObjectBuilder jsonBuilder = jsonBuilderFactory.createObjectBuilder();
+                for (int i = 0; i < fieldNames.length; i++) {
+                    final int column = fieldColumns[i];
+                    if (column < columnCount) {
+                        jsonBuilder.add(fieldNames[i], reader.get(column));
                     }
-                    final JsonObjectBuilder jsonBuilder = jsonBuilderFactory.createObjectBuilder();
-                    result.entrySet().stream().filter(it -> it.getValue() != null).forEach(e -> jsonBuilder.add(e.getKey(), e.getValue()));
-                    return jsonBuilder.build();
-                } else {
-                    return next();
                 }
+                return jsonBuilder.build();
             } else {
                 this.reader.close();
             }
@@ -53,4 +71,11 @@ public class BulkResultSet {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Release the result stream before all the records are read.
+     */
+    public void close() {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,231 @@
+package org.talend.components.salesforce;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.ws.ConnectionException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Download the bulk query result files at full speed to local temporary files, optionally compressed, so that the
+ * http connection is released before the records are consumed. A network failure during a download only downloads
+ * the file again.
+ * The bytes spooled at the same time are capped by a quota: once it is reached, the rest of the file is read from the
+ * connection as without spool. A file is deleted as soon as its channel is closed, the remaining ones on close.
+ */
+@Slf4j
+public class BulkResultSpool implements AutoCloseable {
+
+    /**
+     * the size of the buffer used to read a spooled file
+     */
+    public static final int READ_BUFFER_SIZE = 1 << 20;
+
+    static final int DOWNLOAD_ATTEMPTS = 3;
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+
+    private final boolean compress;
+
+    private final long quota;
+
+    private final AtomicLong spooledBytes = new AtomicLong();
+
+    /**
+     * @param parent the directory in which the spool directory of this read is created
+     * @param compress true to gzip the spooled files
+     * @param quota the maximum number of downloaded bytes spooled at the same time, 0 for no limit
+     */
+    public BulkResultSpool(final Path parent, final boolean compress, final long quota) throws IOException {
+        Files.createDirectories(parent);
+        this.directory = Files.createTempDirectory(parent, "salesforce-bulk-");
+        this.compress = compress;
+        this.quota = quota;
+    }
+
+    /**
+     * Download a result file to the spool.
+     *
+     * @param resultId the id of the result, names the spooled file
+     * @param download opens the connection to the result file, called again when the download fails
+     * @return the channel of the result file content, deleting the spooled file when closed
+     */
+    public ReadableByteChannel spool(final String resultId, final Download download)
+            throws AsyncApiException, ConnectionException, IOException {
+        final Path file =
+                directory.resolve(resultId.replaceAll("[^A-Za-z0-9_.-]", "_") + (compress ? ".csv.gz" : ".csv"));
+        for (int attempt = 1;; attempt++) {
+            final InputStream input = download.open();
+            try {
+                return copy(input, file);
+            } catch (IOException e) {
+                closeQuietly(input);
+                Files.deleteIfExists(file);
+                if (attempt >= DOWNLOAD_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Download of the bulk result {} failed, attempt {} of {}: {}", resultId, attempt,
+                        DOWNLOAD_ATTEMPTS, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the number of downloaded bytes currently spooled
+     */
+    public long getSpooledBytes() {
+        return spooledBytes.get();
+    }
+
+    private ReadableByteChannel copy(final InputStream input, final Path file) throws IOException {
+        final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long size = 0;
+        byte[] pending = null;
+        try (final OutputStream output = output(file)) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                if (quota > 0 && spooledBytes.addAndGet(read) > quota) {
+                    spooledBytes.addAndGet(-read);
+                    pending = Arrays.copyOf(buffer, read);
+                    break;
+                }
+                if (quota <= 0) {
+                    spooledBytes.addAndGet(read);
+                }
+                size += read;
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            spooledBytes.addAndGet(-size);
+            throw e;
+        }
+        if (pending == null) {
+            input.close();
+            log.debug("Spooled {} bytes to {}", size, file);
+            return new SpooledChannel(open(file), file, size, null);
+        }
+        log.warn("The spool quota of {} bytes is reached, reading the rest of {} from the connection", quota,
+                file.getFileName());
+        final InputStream remaining = new SequenceInputStream(Collections.enumeration(
+                Arrays.asList(openStream(file), new ByteArrayInputStream(pending), input)));
+        return new SpooledChannel(Channels.newChannel(remaining), file, size, input);
+    }
+
+    private OutputStream output(final Path file) throws IOException {
+        final OutputStream output = Files.newOutputStream(file);
+        return compress ? new GZIPOutputStream(output, COPY_BUFFER_SIZE) : output;
+    }
+
+    private ReadableByteChannel open(final Path file) throws IOException {
+        return compress ? Channels.newChannel(openStream(file)) : FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private InputStream openStream(final Path file) throws IOException {
+        final InputStream input = Files.newInputStream(file);
+        return compress ? new GZIPInputStream(input, COPY_BUFFER_SIZE) : input;
+    }
+
+    /**
+     * Delete the spool directory and the files which were not read.
+     */
+    @Override
+    public void close() {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Can't delete the spooled file {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Can't clean the spool directory {}", directory, e);
+        }
+    }
+
+    private static void closeQuietly(final InputStream input) {
+        try {
+            input.close();
+        } catch (IOException e) {
+            log.debug("Can't close the result stream", e);
+        }
+    }
+
+    /**
+     * The content of a spooled file, the file is deleted and its bytes released from the quota when closed.
+     */
+    private class SpooledChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel delegate;
+
+        private final Path file;
+
+        private final long size;
+
+        private final InputStream connection;
+
+        private boolean open = true;
+
+        private SpooledChannel(final ReadableByteChannel delegate, final Path file, final long size,
+                final InputStream connection) {
+            this.delegate = delegate;
+            this.file = file;
+            this.size = size;
+            this.connection = connection;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!open) {
+                return;
+            }
+            open = false;
+            try {
+                delegate.close();
+                if (connection != null) {
+                    connection.close();
+                }
+            } finally {
+                spooledBytes.addAndGet(-size);
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Download {
+
+        InputStream open() throws AsyncApiException, ConnectionException;
+    }
+}
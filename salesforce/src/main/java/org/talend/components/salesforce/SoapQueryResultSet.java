@@ -0,0 +1,116 @@
+package org.talend.components.salesforce;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.QueryResult;
+import com.sforce.soap.partner.sobject.SObject;
+import com.sforce.ws.ConnectionException;
+import com.sforce.ws.bind.XmlObject;
+
+/**
+ * Records of a query run with the SOAP api, read page by page with query and queryMore.
+ * The records have the shape of the {@link BulkResultSet} records: they hold the selected fields, the relationship
+ * fields being named {@code Relationship_Field}, sorted case insensitively, and the values are strings, empty for a
+ * null value or a field of a null relationship. The Id elements the api adds to the records are not returned unless
+ * they are selected.
+ */
+public class SoapQueryResultSet {
+
+    private final PartnerConnection connection;
+
+    private final JsonBuilderFactory jsonBuilderFactory;
+
+    /**
+     * the selected fields, sorted case insensitively
+     */
+    private final String[] fieldNames;
+
+    private final SimpleDateFormat dateTimeFormat = utc("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
+    private final SimpleDateFormat dateFormat = utc("yyyy-MM-dd");
+
+    private QueryResult result;
+
+    private int index;
+
+    /**
+     * @param fieldNames the selected fields, named {@code Relationship_Field} for a relationship field
+     * @param batchSize the number of records of each page, from 200 to 2000
+     */
+    public SoapQueryResultSet(final PartnerConnection connection, final String query,
+            final Collection<String> fieldNames, final int batchSize, final JsonBuilderFactory jsonBuilderFactory)
+            throws ConnectionException {
+        this.connection = connection;
+        this.jsonBuilderFactory = jsonBuilderFactory;
+        final Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.addAll(fieldNames);
+        this.fieldNames = names.toArray(new String[0]);
+        connection.setQueryOptions(batchSize);
+        this.result = connection.query(query);
+    }
+
+    public JsonObject next() throws ConnectionException {
+        while (index >= result.getRecords().length) {
+            if (result.isDone()) {
+                return null;
+            }
+            result = connection.queryMore(result.getQueryLocator());
+            index = 0;
+        }
+        final Map<String, String> fields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        addFields(result.getRecords()[index++], null, fields);
+        final JsonObjectBuilder jsonBuilder = jsonBuilderFactory.createObjectBuilder();
+        for (String fieldName : fieldNames) {
+            jsonBuilder.add(fieldName, fields.getOrDefault(fieldName, ""));
+        }
+        return jsonBuilder.build();
+    }
+
+    private void addFields(final XmlObject record, final String prefix, final Map<String, String> fields) {
+        final Iterator<XmlObject> children = record.getChildren();
+        while (children.hasNext()) {
+            final XmlObject child = children.next();
+            final String name = child.getName().getLocalPart();
+            if (prefix == null && "type".equals(name) && record instanceof SObject) { // the sobject type
+                continue;
+            }
+            final String fieldName = prefix == null ? name : prefix + '_' + name;
+            if (child.hasChildren()) { // a relationship
+                addFields(child, fieldName, fields);
+            } else if (prefix == null || !"type".equals(name)) {
+                fields.put(fieldName, toString(child.getValue()));
+            }
+        }
+    }
+
+    private String toString(final Object value) {
+        if (value == null) {
+            return "";
+        } else if (value instanceof Calendar) {
+            return dateTimeFormat.format(((Calendar) value).getTime());
+        } else if (value instanceof Date) {
+            return dateFormat.format((Date) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static SimpleDateFormat utc(final String pattern) {
+        final SimpleDateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+}
@@ -1,6 +1,7 @@
 package org.talend.components.salesforce.dataset;
 
 import static org.talend.components.salesforce.dataset.QueryDataSet.SourceType.SOQL_QUERY;
+import static org.talend.components.salesforce.service.MetadataService.GET_MODULES;
 
 import java.io.Serializable;
 import java.util.Arrays;
@@ -12,6 +13,8 @@ import org.talend.components.salesforce.datastore.BasicDataStore;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.configuration.action.Suggestable;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.constraint.Max;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.constraint.Required;
 import org.talend.sdk.component.api.configuration.type.DataSet;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
@@ -29,6 +32,14 @@ import lombok.Data;
         @GridLayout.Row("moduleName"),
         @GridLayout.Row("selectColumnIds"),
         @GridLayout.Row("condition"),
+        @GridLayout.Row({ "excludeFormulaFields", "excludeBase64Fields" }),
+        @GridLayout.Row({ "excludeLongTextAreas", "maxTextAreaLength" }),
+        @GridLayout.Row("incremental"),
+        @GridLayout.Row({ "incrementalField", "watermarkName" }),
+        @GridLayout.Row({ "queryMode", "soapThreshold", "soapBatchSize" }),
+        @GridLayout.Row({ "concurrentDownloads", "downloadBufferSize" }),
+        @GridLayout.Row("spoolResults"),
+        @GridLayout.Row("jobCheckpointName"),
 })
 @Documentation("")
 public class QueryDataSet implements Serializable {
@@ -52,9 +63,7 @@ public class QueryDataSet implements Serializable {
     @Option
     @ActiveIf(target = "sourceType", value = { "MODULE_SELECTION" })
     @Documentation("")
-    @Suggestable(value = "getmodules", parameters = {
-            ".", ".datastore"
-    })
+    @Suggestable(value = GET_MODULES, parameters = { "../dataStore" })
     public String moduleName;
 
     @Option
@@ -67,12 +76,92 @@ public class QueryDataSet implements Serializable {
     @Documentation("")
     public String condition;
 
+    @Option
+    @ActiveIf(target = "sourceType", value = { "MODULE_SELECTION" })
+    @Documentation("Do not read the formula fields when no column is selected")
+    public boolean excludeFormulaFields;
+
+    @Option
+    @ActiveIf(target = "sourceType", value = { "MODULE_SELECTION" })
+    @Documentation("Do not read the base64 fields when no column is selected, the bulk api can not query them")
+    public boolean excludeBase64Fields = true;
+
+    @Option
+    @ActiveIf(target = "sourceType", value = { "MODULE_SELECTION" })
+    @Documentation("Do not read the text areas longer than the maximum length when no column is selected")
+    public boolean excludeLongTextAreas;
+
+    @Option
+    @Min(0)
+    @ActiveIf(target = "excludeLongTextAreas", value = "true")
+    @Documentation("Maximum length of the text areas read when the long text areas are excluded")
+    public int maxTextAreaLength = 255;
+
     @Option
     @ActiveIf(target = "sourceType", value = { "SOQL_QUERY" })
     @Code("sql")
     @Documentation("")
     public String query;
 
+    @Option
+    @Documentation("Read only the records modified since the watermark saved by the previous complete read")
+    public boolean incremental;
+
+    @Option
+    @ActiveIf(target = "incremental", value = "true")
+    @Documentation("The modification timestamp field, read with the records and compared with the watermark")
+    public String incrementalField = "SystemModstamp";
+
+    @Option
+    @ActiveIf(target = "incremental", value = "true")
+    @Documentation("The name under which the highest timestamp read is saved for the next run")
+    public String watermarkName;
+
+    @Option
+    @Documentation("Read the records with the bulk api, with the SOAP api, or with the SOAP api when the estimated "
+            + "number of records is below the threshold and with the bulk api otherwise")
+    public QueryMode queryMode = QueryMode.BULK;
+
+    @Option
+    @Min(0)
+    @ActiveIf(target = "queryMode", value = { "AUTO" })
+    @Documentation("Maximum estimated number of records read with the SOAP api in automatic mode")
+    public int soapThreshold = 2000;
+
+    @Option
+    @Min(200)
+    @Max(2000)
+    @ActiveIf(target = "queryMode", value = { "AUTO", "SOAP" })
+    @Documentation("Number of records returned by each SOAP query call")
+    public int soapBatchSize = 2000;
+
+    @Option
+    @Min(1)
+    @Documentation("Number of bulk result files downloaded in parallel, each file keeps the order of its records")
+    public int concurrentDownloads = 1;
+
+    @Option
+    @Min(1)
+    @Documentation("Maximum number of downloaded records waiting to be read when the result files are downloaded "
+            + "in parallel")
+    public int downloadBufferSize = 10000;
+
+    @Option
+    @Documentation("Download each bulk result file to a local temporary file before reading it, so that a slow "
+            + "downstream doesn't keep the connection open")
+    public boolean spoolResults;
+
+    @Option
+    @Documentation("The name under which the bulk job and the results already read are saved until the end of the "
+            + "read, a restarted read reattaches to the job instead of running the query again. Empty to always run "
+            + "the query")
+    public String jobCheckpointName;
+
+    public enum QueryMode {
+        AUTO,
+        BULK,
+        SOAP
+    }
 
     public enum SourceType {
         MODULE_SELECTION,
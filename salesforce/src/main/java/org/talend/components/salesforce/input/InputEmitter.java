@@ -1,6 +1,7 @@
 package org.talend.components.salesforce.input;
 
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.talend.components.salesforce.dataset.QueryDataSet.SourceType.MODULE_SELECTION;
 import static org.talend.components.salesforce.dataset.QueryDataSet.SourceType.SOQL_QUERY;
 
@@ -8,25 +9,37 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.json.JsonBuilderFactory;
 import javax.json.JsonObject;
 
 import com.sforce.async.AsyncApiException;
 import com.sforce.async.BulkConnection;
-import com.sforce.soap.partner.DescribeSObjectResult;
-import com.sforce.soap.partner.Field;
 import com.sforce.soap.partner.FieldType;
 import com.sforce.soap.partner.PartnerConnection;
 import com.sforce.soap.partner.fault.ApiFault;
 import com.sforce.ws.ConnectionException;
 
+import org.talend.components.salesforce.BulkJobCheckpoint;
+import org.talend.components.salesforce.BulkJobPartition;
+import org.talend.components.salesforce.BulkResultQueue;
 import org.talend.components.salesforce.BulkResultSet;
+import org.talend.components.salesforce.BulkResultSpool;
+import org.talend.components.salesforce.SoapQueryResultSet;
 import org.talend.components.salesforce.dataset.QueryDataSet;
+import org.talend.components.salesforce.dataset.QueryDataSet.QueryMode;
 import org.talend.components.salesforce.service.BasicDatastoreService;
+import org.talend.components.salesforce.service.BulkJobCheckpointStore;
 import org.talend.components.salesforce.service.BulkQueryService;
 import org.talend.components.salesforce.service.Messages;
+import org.talend.components.salesforce.service.MetadataService;
+import org.talend.components.salesforce.service.ModuleDescription;
+import org.talend.components.salesforce.service.ModuleField;
+import org.talend.components.salesforce.service.WatermarkStore;
+import org.talend.components.salesforce.soql.FieldDescription;
 import org.talend.components.salesforce.soql.SoqlQuery;
 import org.talend.sdk.component.api.component.Icon;
 import org.talend.sdk.component.api.component.Version;
@@ -51,18 +64,66 @@ public class InputEmitter implements Serializable {
 
     private final LocalConfiguration localConfiguration;
 
+    private final MetadataService metadataService;
+
     private BulkQueryService bulkQueryService;
 
     private BulkResultSet bulkResultSet;
 
+    private BulkResultQueue bulkResultQueue;
+
+    /**
+     * The local files the bulk results are downloaded to, null when they are read from the connection
+     */
+    private BulkResultSpool bulkResultSpool;
+
+    private SoapQueryResultSet soapQueryResultSet;
+
+    /**
+     * The store of the incremental read watermark, null when the read is not incremental
+     */
+    private WatermarkStore watermarkStore;
+
+    /**
+     * The record field of the modification timestamp and the highest timestamp read, the records being unordered
+     */
+    private String incrementalKey;
+
+    private String watermark;
+
+    private boolean endOfRead;
+
+    /**
+     * The bulk job saved for a restart and the result being read, null when the job is not saved
+     */
+    private BulkJobCheckpointStore jobCheckpointStore;
+
+    private BulkJobCheckpoint jobCheckpoint;
+
+    private String resultId;
+
     private JsonBuilderFactory jsonBuilderFactory;
 
     private Messages messages;
 
+    /**
+     * The batches to read when this emitter is created by {@link PartitionedInputMapper}
+     */
+    private final BulkJobPartition partition;
+
     public InputEmitter(@Option("configuration") final QueryDataSet queryDataSet, final BasicDatastoreService service,
+            final MetadataService metadataService, LocalConfiguration configuration,
+            final JsonBuilderFactory jsonBuilderFactory, final Messages messages) {
+        this(queryDataSet, null, service, metadataService, configuration, jsonBuilderFactory, messages);
+    }
+
+    InputEmitter(final QueryDataSet queryDataSet, final BulkJobPartition partition,
+            final BasicDatastoreService service, final MetadataService metadataService,
             LocalConfiguration configuration, final JsonBuilderFactory jsonBuilderFactory, final Messages messages) {
         this.service = service;
+        this.metadataService = metadataService;
         this.dataset = queryDataSet;
+        this.partition = partition;
         this.localConfiguration = configuration;
         this.jsonBuilderFactory = jsonBuilderFactory;
         this.messages = messages;
@@ -71,19 +132,126 @@ public class InputEmitter implements Serializable {
     @PostConstruct
     public void init() {
         try {
+            String query = null;
+            if (partition == null) {
+                query = getSoqlQuery(dataset, metadataService);
+                if (dataset.isIncremental()) {
+                    final String incrementalField = dataset.getIncrementalField().trim();
+                    if (dataset.getSourceType() == SOQL_QUERY && !isSelected(query, incrementalField)) {
+                        throw new IllegalStateException(messages.errorIncrementalFieldNotSelected(incrementalField));
+                    }
+                    watermarkStore = service.createWatermarkStore(localConfiguration);
+                    final String savedWatermark = watermarkStore.load(watermarkName());
+                    if (savedWatermark != null) {
+                        log.debug("Reading the records modified after {}", savedWatermark);
+                        query = SoqlQuery.parse(query).addCondition(incrementalField + " > " + savedWatermark);
+                    }
+                }
+            }
+            if (partition == null && dataset.getQueryMode() != QueryMode.BULK) {
+                final PartnerConnection connection = service.connect(dataset.getDataStore(), localConfiguration);
+                if (useSoapQuery(connection, query)) {
+                    final List<String> fieldNames = SoqlQuery.parse(query)
+                            .getFieldDescriptions()
+                            .stream()
+                            .map(FieldDescription::getFullName)
+                            .collect(toList());
+                    soapQueryResultSet = new SoapQueryResultSet(connection, query, fieldNames,
+                            dataset.getSoapBatchSize(), jsonBuilderFactory);
+                    return;
+                }
+            }
             final BulkConnection bulkConnection = service.bulkConnect(dataset.getDataStore(), localConfiguration);
             bulkQueryService = new BulkQueryService(bulkConnection, jsonBuilderFactory, messages);
-            bulkQueryService.doBulkQuery(getModuleName(), getSoqlQuery());
+            bulkQueryService.setPollingScheduler(service.createPollingScheduler(localConfiguration));
+            if (dataset.isSpoolResults()) {
+                bulkResultSpool = service.createBulkResultSpool(localConfiguration);
+                bulkQueryService.setResultSpool(bulkResultSpool);
+            }
+            if (partition == null && hasJobCheckpoint()) {
+                startCheckpointedQuery(query);
+            } else if (partition == null) {
+                bulkQueryService.doBulkQuery(getModuleName(dataset), query);
+            } else {
+                bulkQueryService.readBatches(partition.getJobId(), partition.getBatchIds());
+            }
+            if (dataset.getConcurrentDownloads() > 1) {
+                bulkResultQueue = new BulkResultQueue(bulkQueryService::nextResultSet,
+                        dataset.getConcurrentDownloads(), dataset.getDownloadBufferSize());
+                bulkResultQueue.start();
+            }
         } catch (ConnectionException e) {
             throw handleConnectionException(e);
         } catch (AsyncApiException e) {
             throw new IllegalStateException(e.getExceptionMessage(), e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            if (dataset.getSourceType() == MODULE_SELECTION) { // the query may use a stale module description
+                metadataService.invalidateModule(dataset.getDataStore(), dataset.getModuleName());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reattach to the job saved by a previous run of the same query, or create the job and save it as soon as it is
+     * created. The results already read by the previous run are skipped.
+     */
+    private void startCheckpointedQuery(final String query)
+            throws AsyncApiException, InterruptedException, ConnectionException {
+        final String name = dataset.getJobCheckpointName().trim();
+        jobCheckpointStore = service.createBulkJobCheckpointStore(localConfiguration);
+        final BulkJobCheckpoint saved = jobCheckpointStore.load(name);
+        if (saved != null && query.equals(saved.getQuery())) {
+            try {
+                final List<String> batchIds = bulkQueryService.attachBulkQuery(saved.getJobId());
+                if (batchIds != null) {
+                    log.info("Reattached to the bulk job {}, {} results already read", saved.getJobId(),
+                            saved.getConsumedResultIds().size());
+                    saved.setBatchIds(batchIds);
+                    jobCheckpoint = saved;
+                    jobCheckpointStore.save(name, jobCheckpoint);
+                    bulkQueryService.readBatches(saved.getJobId(), batchIds, saved.getConsumedResultIds());
+                    return;
+                }
+            } catch (AsyncApiException e) { // the job results are kept for 7 days
+                log.info("Can't reattach to the bulk job {}: {}", saved.getJobId(), e.getExceptionMessage());
+            }
         }
+        bulkQueryService.setJobCreationListener(jobId -> {
+            jobCheckpoint = new BulkJobCheckpoint(query, jobId);
+            jobCheckpointStore.save(name, jobCheckpoint);
+        });
+        final List<String> batchIds = bulkQueryService.createBulkQuery(getModuleName(dataset), query);
+        jobCheckpoint.setBatchIds(batchIds);
+        jobCheckpointStore.save(name, jobCheckpoint);
+        bulkQueryService.readBatches(jobCheckpoint.getJobId(), batchIds);
+    }
+
+    private boolean hasJobCheckpoint() {
+        return dataset.getJobCheckpointName() != null && !dataset.getJobCheckpointName().trim().isEmpty();
     }
 
-    private IllegalStateException handleConnectionException(final ConnectionException e) {
+    /**
+     * @return true to read the query with the SOAP api: always in SOAP mode, and in automatic mode when the number of
+     * records counted by the query is below the threshold, the bulk api is used when the count fails
+     */
+    private boolean useSoapQuery(final PartnerConnection connection, final String query) {
+        if (dataset.getQueryMode() == QueryMode.SOAP) {
+            return true;
+        }
+        try {
+            final int estimate = connection.query(SoqlQuery.parse(query).getCountQuery()).getSize();
+            log.debug("{} records estimated, SOAP threshold {}", estimate, dataset.getSoapThreshold());
+            return estimate <= dataset.getSoapThreshold();
+        } catch (ConnectionException | IllegalStateException e) {
+            log.debug("Can't count the query records, the bulk api is used: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    static IllegalStateException handleConnectionException(final ConnectionException e) {
         if (e == null) {
             return new IllegalStateException("unexpected error. can't handle connection error.");
         } else if (ApiFault.class.isInstance(e)) {
@@ -96,17 +264,39 @@ public class InputEmitter implements Serializable {
 
     @Producer
     public JsonObject next() {
-        try {
-            if (bulkResultSet == null) {
-                bulkResultSet = bulkQueryService.getQueryResultSet(bulkQueryService.nextResultId());
+        final JsonObject record = readRecord();
+        if (record == null) {
+            endOfRead = true;
+        } else if (watermarkStore != null) {
+            updateWatermark(record);
+        }
+        return record;
+    }
+
+    private JsonObject readRecord() {
+        if (soapQueryResultSet != null) {
+            try {
+                return soapQueryResultSet.next();
+            } catch (ConnectionException e) {
+                throw handleConnectionException(e);
             }
-            JsonObject currentRecord = bulkResultSet.next();
-            if (currentRecord == null) {
-                String resultId = bulkQueryService.nextResultId();
+        }
+        if (bulkResultQueue != null) {
+            return bulkResultQueue.next();
+        }
+        try {
+            JsonObject currentRecord = bulkResultSet == null ? null : bulkResultSet.next();
+            while (currentRecord == null) {
                 if (resultId != null) {
-                    bulkResultSet = bulkQueryService.getQueryResultSet(resultId);
-                    currentRecord = bulkResultSet.next();
+                    resultConsumed(resultId);
                 }
+                // waits for the next completed batch when pk chunk batches are still in progress
+                resultId = bulkQueryService.nextResultId();
+                if (resultId == null) {
+                    return null;
+                }
+                bulkResultSet = bulkQueryService.getQueryResultSet(resultId);
+                currentRecord = bulkResultSet.next();
             }
             return currentRecord;
         } catch (ConnectionException e) {
@@ -118,31 +308,88 @@ public class InputEmitter implements Serializable {
         }
     }
 
-    private String getModuleName() {
+    /**
+     * Save that all the records of a result were emitted, the results downloaded in parallel are not saved as their
+     * records are mixed.
+     */
+    private void resultConsumed(final String id) {
+        if (jobCheckpoint != null) {
+            jobCheckpoint.getConsumedResultIds().add(id);
+            jobCheckpointStore.save(dataset.getJobCheckpointName().trim(), jobCheckpoint);
+        }
+    }
+
+    private void updateWatermark(final JsonObject record) {
+        if (incrementalKey == null) {
+            final String field = dataset.getIncrementalField().trim();
+            incrementalKey = record.keySet().stream().filter(field::equalsIgnoreCase).findFirst()
+                    .orElseThrow(() -> new IllegalStateException(messages.errorIncrementalFieldNotSelected(field)));
+        }
+        final String value = record.getString(incrementalKey, "");
+        // the ISO 8601 UTC timestamps of salesforce sort as strings
+        if (!value.isEmpty() && (watermark == null || value.compareTo(watermark) > 0)) {
+            watermark = value;
+        }
+    }
+
+    /**
+     * The watermark is only saved once all the records are read, the records of an interrupted read being unordered.
+     */
+    @PreDestroy
+    public void close() {
+        if (endOfRead && watermark != null) {
+            watermarkStore.save(watermarkName(), watermark);
+        }
+        if (endOfRead && jobCheckpoint != null) {
+            jobCheckpointStore.remove(dataset.getJobCheckpointName().trim());
+        }
+        if (bulkResultQueue != null) {
+            bulkResultQueue.close();
+        }
+        if (bulkQueryService != null) {
+            bulkQueryService.close();
+        }
+        if (bulkResultSpool != null) {
+            bulkResultSpool.close();
+        }
+    }
+
+    private String watermarkName() {
+        if (dataset.getWatermarkName() == null || dataset.getWatermarkName().trim().isEmpty()) {
+            throw new IllegalStateException(messages.errorEmptyWatermarkName());
+        }
+        return dataset.getWatermarkName().trim();
+    }
+
+    /**
+     * @return true when the field, as named in the conditions of the query, is in the select list of the query
+     */
+    static boolean isSelected(final String query, final String field) {
+        final String fullName = field.replace('.', '_');
+        return SoqlQuery.parse(query).getFieldDescriptions().stream().map(FieldDescription::getFullName).anyMatch(
+                fullName::equalsIgnoreCase);
+    }
+
+    static String getModuleName(final QueryDataSet dataset) {
         if (dataset.getSourceType() == MODULE_SELECTION) {
             return dataset.getModuleName();
         }
         String query = dataset.getQuery();
         if (query != null && !query.isEmpty()) {
-            SoqlQuery soqlInstance = SoqlQuery.getInstance();
-            soqlInstance.init(query);
-            return soqlInstance.getDrivingEntityName();
+            return SoqlQuery.parse(query).getDrivingEntityName();
         }
 
         throw new IllegalStateException("Module name can't be retrieved");
     }
 
-    private String getSoqlQuery() {
+    static String getSoqlQuery(final QueryDataSet dataset, final MetadataService metadataService) {
         if (dataset.getSourceType() == SOQL_QUERY) {
             return dataset.getQuery();
         }
 
-        List<String> allModuleFields;
-        DescribeSObjectResult describeSObjectResult;
+        final ModuleDescription description;
         try {
-            final PartnerConnection connection = service.connect(dataset.getDataStore(), localConfiguration);
-            describeSObjectResult = connection.describeSObject(dataset.getModuleName());
-            allModuleFields = getColumnNames(describeSObjectResult);
+            description = metadataService.describeModule(dataset.getDataStore(), dataset.getModuleName());
         } catch (ConnectionException e) {
             if (ApiFault.class.isInstance(e)) {
                 ApiFault fault = ApiFault.class.cast(e);
@@ -151,9 +398,10 @@ public class InputEmitter implements Serializable {
             throw new IllegalStateException(e);
         }
 
+        final List<String> allModuleFields = getColumnNames(description, field -> true);
         List<String> queryFields;
         if (dataset.getSelectColumnIds() == null || dataset.getSelectColumnIds().isEmpty()) {
-            queryFields = allModuleFields;
+            queryFields = getColumnNames(description, field -> !isExcluded(field, dataset));
         } else if (!allModuleFields.containsAll(dataset.getSelectColumnIds())) { // ensure requested fields exist
             throw new IllegalStateException(
                     "columns { " + dataset.getSelectColumnIds().stream().filter(c -> !allModuleFields.contains(c))
@@ -162,6 +410,12 @@ public class InputEmitter implements Serializable {
         } else {
             queryFields = dataset.getSelectColumnIds();
         }
+        if (dataset.isIncremental() && dataset.getIncrementalField() != null
+                && queryFields.stream().noneMatch(dataset.getIncrementalField().trim()::equalsIgnoreCase)) {
+            // the watermark is read with the records
+            queryFields = new ArrayList<>(queryFields);
+            queryFields.add(dataset.getIncrementalField().trim());
+        }
 
         StringBuilder sb = new StringBuilder();
         sb.append("select ");
@@ -181,18 +435,30 @@ public class InputEmitter implements Serializable {
         return sb.toString();
     }
 
-    private List<String> getColumnNames(DescribeSObjectResult in) {
+    /**
+     * @return true if the field is not read when all the columns of the module are read
+     */
+    static boolean isExcluded(final ModuleField field, final QueryDataSet dataset) {
+        return (dataset.isExcludeFormulaFields() && field.isCalculated())
+                || (dataset.isExcludeBase64Fields() && FieldType.base64.name().equals(field.getType()))
+                || (dataset.isExcludeLongTextAreas() && FieldType.textarea.name().equals(field.getType())
+                        && field.getLength() > dataset.getMaxTextAreaLength());
+    }
+
+    private static List<String> getColumnNames(ModuleDescription in, Predicate<ModuleField> filter) {
         List<String> fields = new ArrayList<>();
-        for (Field field : in.getFields()) {
+        for (ModuleField field : in.getFields()) {
             // filter the invalid compound columns for salesforce bulk query api
-            if (field.getType() == FieldType.address || // no address
-                    field.getType() == FieldType.location || // no location
+            if (FieldType.address.name().equals(field.getType()) || // no address
+                    FieldType.location.name().equals(field.getType()) || // no location
                     // no picklist that has a parent
-                    (field.getType() == FieldType.picklist && field.getCompoundFieldName() != null
+                    (FieldType.picklist.name().equals(field.getType()) && field.getCompoundFieldName() != null
                             && !field.getCompoundFieldName().trim().isEmpty())) {
                 continue;
             }
-            fields.add(field.getName());
+            if (filter.test(field)) {
+                fields.add(field.getName());
+            }
         }
         return fields;
     }
@@ -0,0 +1,141 @@
+package org.talend.components.salesforce.input;
+
+import static java.util.Collections.singletonList;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.JsonBuilderFactory;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.ws.ConnectionException;
+
+import org.talend.components.salesforce.BulkJobPartition;
+import org.talend.components.salesforce.dataset.QueryDataSet;
+import org.talend.components.salesforce.service.BasicDatastoreService;
+import org.talend.components.salesforce.service.BulkQueryService;
+import org.talend.components.salesforce.service.Messages;
+import org.talend.components.salesforce.service.MetadataService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Assessor;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.PartitionMapper;
+import org.talend.sdk.component.api.input.PartitionSize;
+import org.talend.sdk.component.api.input.Split;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.service.configuration.LocalConfiguration;
+
+/**
+ * Read a query in parallel. The bulk job is created once with pk chunking and its chunk batches are distributed
+ * between the partitions, each one read by its own {@link InputEmitter}. The size of a partition is counted in
+ * records, a chunk batch holding up to the chunk size of the job of them. The query mode and the
+ * incremental read of the dataset are ignored, all the records are read with the bulk api.
+ */
+@Version
+@Icon(value = Icon.IconType.CUSTOM, custom = "SalesforceInput")
+@PartitionMapper(name = "PartitionedInput")
+@Documentation("Salesforce query input reading the pk chunk batches of the bulk job in parallel")
+public class PartitionedInputMapper implements Serializable {
+
+    private final QueryDataSet dataset;
+
+    private final BasicDatastoreService service;
+
+    private final MetadataService metadataService;
+
+    private final LocalConfiguration localConfiguration;
+
+    private final JsonBuilderFactory jsonBuilderFactory;
+
+    private final Messages messages;
+
+    /**
+     * The batches read by this mapper, null until the bulk job is created
+     */
+    private BulkJobPartition partition;
+
+    private boolean split;
+
+    public PartitionedInputMapper(@Option("configuration") final QueryDataSet dataset,
+            final BasicDatastoreService service, final MetadataService metadataService,
+            final LocalConfiguration configuration, final JsonBuilderFactory jsonBuilderFactory,
+            final Messages messages) {
+        this(dataset, null, service, metadataService, configuration, jsonBuilderFactory, messages);
+    }
+
+    private PartitionedInputMapper(final QueryDataSet dataset, final BulkJobPartition partition,
+            final BasicDatastoreService service, final MetadataService metadataService,
+            final LocalConfiguration configuration, final JsonBuilderFactory jsonBuilderFactory,
+            final Messages messages) {
+        this.dataset = dataset;
+        this.metadataService = metadataService;
+        this.partition = partition;
+        this.split = partition != null;
+        this.service = service;
+        this.localConfiguration = configuration;
+        this.jsonBuilderFactory = jsonBuilderFactory;
+        this.messages = messages;
+    }
+
+    /**
+     * @return the maximum number of records of the batches to read, used by the runner to compare the partitions.
+     */
+    @Assessor
+    public long estimateSize() {
+        return (long) getPartition().getBatchIds().size() * getPartition().getChunkSize();
+    }
+
+    @Split
+    public List<PartitionedInputMapper> split(@PartitionSize final long desiredSize) {
+        if (split) {
+            return singletonList(this);
+        }
+        final List<String> batchIds = getPartition().getBatchIds();
+        final int batchesPerPartition = (int) Math.max(1,
+                Math.min(batchIds.size(), desiredSize / Math.max(1, partition.getChunkSize())));
+        final List<PartitionedInputMapper> mappers = new ArrayList<>();
+        for (int from = 0; from < batchIds.size(); from += batchesPerPartition) {
+            final List<String> batches =
+                    new ArrayList<>(batchIds.subList(from, Math.min(batchIds.size(), from + batchesPerPartition)));
+            mappers.add(new PartitionedInputMapper(dataset,
+                    new BulkJobPartition(partition.getJobId(), batches, partition.getChunkSize()), service,
+                    metadataService, localConfiguration, jsonBuilderFactory, messages));
+        }
+        return mappers;
+    }
+
+    @Emitter
+    public InputEmitter createWorker() {
+        return new InputEmitter(dataset, getPartition(), service, metadataService, localConfiguration,
+                jsonBuilderFactory, messages);
+    }
+
+    /**
+     * Create the bulk job the first time the partition is needed.
+     */
+    private BulkJobPartition getPartition() {
+        if (partition == null) {
+            try {
+                final BulkQueryService bulkQueryService = new BulkQueryService(
+                        service.bulkConnect(dataset.getDataStore(), localConfiguration), jsonBuilderFactory,
+                        messages);
+                bulkQueryService.setPollingScheduler(service.createPollingScheduler(localConfiguration));
+                final List<String> batchIds = bulkQueryService.createBulkQuery(InputEmitter.getModuleName(dataset),
+                        InputEmitter.getSoqlQuery(dataset, metadataService));
+                partition = new BulkJobPartition(bulkQueryService.getJobId(), new ArrayList<>(batchIds),
+                        bulkQueryService.getChunkSize());
+            } catch (ConnectionException e) {
+                throw InputEmitter.handleConnectionException(e);
+            } catch (AsyncApiException e) {
+                throw new IllegalStateException(e.getExceptionMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return partition;
+    }
+}
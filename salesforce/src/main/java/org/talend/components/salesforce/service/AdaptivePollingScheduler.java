@@ -0,0 +1,61 @@
+package org.talend.components.salesforce.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Wait for the estimated remaining time of the batches, bounded by a floor and a ceiling.
+ * When the records expected are known the remaining time is estimated from the processing rate of the records,
+ * otherwise a fraction of the time already spent is waited, so that a short query is seen soon and a long one is
+ * polled less and less often. A random jitter spreads the polls of the jobs started together.
+ */
+public class AdaptivePollingScheduler implements PollingScheduler {
+
+    public static final long DEFAULT_FLOOR = 500;
+
+    public static final long DEFAULT_CEILING = 30_000;
+
+    public static final double DEFAULT_JITTER = 0.2;
+
+    /**
+     * the fraction of the elapsed time waited when the remaining time can't be estimated
+     */
+    private static final double ELAPSED_FRACTION = 0.25;
+
+    private final long floor;
+
+    private final long ceiling;
+
+    private final double jitter;
+
+    public AdaptivePollingScheduler() {
+        this(DEFAULT_FLOOR, DEFAULT_CEILING, DEFAULT_JITTER);
+    }
+
+    /**
+     * @param floor the minimum delay in milliseconds
+     * @param ceiling the maximum delay in milliseconds
+     * @param jitter the maximum random part of the delay, 0.2 for +/-20%
+     */
+    public AdaptivePollingScheduler(final long floor, final long ceiling, final double jitter) {
+        this.floor = floor;
+        this.ceiling = Math.max(floor, ceiling);
+        this.jitter = jitter;
+    }
+
+    @Override
+    public long nextDelay(final PollProgress progress) {
+        final double estimate;
+        if (progress.getRecordsExpected() > 0 && progress.getRecordsProcessed() > 0 && progress.getElapsed() > 0) {
+            final double rate = (double) progress.getRecordsProcessed() / progress.getElapsed();
+            estimate = Math.max(0, progress.getRecordsExpected() - progress.getRecordsProcessed()) / rate;
+        } else {
+            estimate = progress.getElapsed() * ELAPSED_FRACTION;
+        }
+        final double jittered = bound(estimate) * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1));
+        return (long) bound(jittered);
+    }
+
+    private double bound(final double delay) {
+        return Math.min(ceiling, Math.max(floor, delay));
+    }
+}
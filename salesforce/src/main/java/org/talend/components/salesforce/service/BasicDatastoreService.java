@@ -9,6 +9,7 @@ import java.io.InputStream;
 import java.net.Proxy;
 import java.net.ProxySelector;
 import java.net.URI;
+import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.Properties;
 
@@ -22,6 +23,7 @@ import com.sforce.ws.ConnectionException;
 import com.sforce.ws.ConnectorConfig;
 import com.sforce.ws.SessionRenewer;
 
+import org.talend.components.salesforce.BulkResultSpool;
 import org.talend.components.salesforce.datastore.BasicDataStore;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.service.Service;
@@ -37,8 +39,39 @@ public class BasicDatastoreService {
 
     private static final int DEFAULT_TIMEOUT = 60000;
 
+    /**
+     * a session is reused for 30 minutes at most, the default session timeout of Salesforce being 2 hours
+     */
+    private static final long DEFAULT_SESSION_TTL = 30 * 60 * 1000;
+
     private static final String CONFIG_FILE_lOCATION_KEY = "org.talend.component.salesforce.config.file";
 
+    private static final String POLLING_SCHEDULER_KEY = "org.talend.component.salesforce.bulk.polling.scheduler";
+
+    private static final String POLLING_FLOOR_KEY = "org.talend.component.salesforce.bulk.polling.floor";
+
+    private static final String POLLING_CEILING_KEY = "org.talend.component.salesforce.bulk.polling.ceiling";
+
+    private static final String POLLING_JITTER_KEY = "org.talend.component.salesforce.bulk.polling.jitter";
+
+    private static final String WATERMARK_STORE_KEY = "org.talend.component.salesforce.watermark.store";
+
+    private static final String WATERMARK_DIRECTORY_KEY = "org.talend.component.salesforce.watermark.directory";
+
+    private static final String BULK_CHECKPOINT_DIRECTORY_KEY =
+            "org.talend.component.salesforce.bulk.checkpoint.directory";
+
+    private static final String BULK_SPOOL_DIRECTORY_KEY = "org.talend.component.salesforce.bulk.spool.directory";
+
+    private static final String BULK_SPOOL_COMPRESS_KEY = "org.talend.component.salesforce.bulk.spool.compress";
+
+    private static final String BULK_SPOOL_QUOTA_KEY = "org.talend.component.salesforce.bulk.spool.quota";
+
+    /**
+     * the bytes spooled at the same time are limited to 10GB by default
+     */
+    private static final long DEFAULT_SPOOL_QUOTA = 10L * 1024 * 1024 * 1024;
+
     private static final String RETIRED_ENDPOINT = "www.salesforce.com";
 
     private static final String ACTIVE_ENDPOINT = "login.salesforce.com";
@@ -47,11 +80,14 @@ public class BasicDatastoreService {
 
     public static final String URL = "https://" + ACTIVE_ENDPOINT + "/services/Soap/u/" + DEFAULT_API_VERSION;
 
+    private final SessionCache sessionCache = new SessionCache();
+
     @HealthCheck("basic.healthcheck")
     public HealthCheckStatus validateBasicConnection(@Option final BasicDataStore datastore, Messages i18n,
             LocalConfiguration configuration) {
         try {
-            connect(datastore, configuration);
+            // always a login, a cached session says nothing about the current credentials or network
+            connect(datastore, configuration, false);
         } catch (ConnectionException ex) {
             String error;
             if (ApiFault.class.isInstance(ex)) {
@@ -84,10 +120,22 @@ public class BasicDatastoreService {
 
     public PartnerConnection connect(final BasicDataStore datastore, final LocalConfiguration localConfiguration)
             throws ConnectionException {
+        return connect(datastore, localConfiguration, true);
+    }
+
+    /**
+     * @param reuseSession false to login even if a session of the user is cached, the new session is cached
+     */
+    private PartnerConnection connect(final BasicDataStore datastore, final LocalConfiguration localConfiguration,
+            final boolean reuseSession) throws ConnectionException {
         final Properties props = loadCustomConfiguration(localConfiguration);
         final Integer timeout =
                 (props != null) ? Integer.parseInt(props.getProperty("timeout", String.valueOf(DEFAULT_TIMEOUT))) :
                         DEFAULT_TIMEOUT;
+        // 0 disables the session cache
+        final long sessionTtl = (props != null)
+                ? Long.parseLong(props.getProperty("sessionTtl", String.valueOf(DEFAULT_SESSION_TTL)))
+                : DEFAULT_SESSION_TTL;
         String endpoint = props != null ? props.getProperty("endpoint", URL) : URL;
         if (endpoint.contains(RETIRED_ENDPOINT)) {
             endpoint = endpoint.replaceFirst(RETIRED_ENDPOINT, ACTIVE_ENDPOINT);
@@ -109,6 +157,7 @@ public class BasicDatastoreService {
             password = password + securityKey;
         }
         config.setPassword(password);
+        final String sessionKey = SessionCache.key(endpoint, datastore.getUserId(), password);
         config.setConnectionTimeout(timeout);
         config.setCompression(true);// This should only be false when doing debugging.
         config.setUseChunkedPost(true);
@@ -119,15 +168,37 @@ public class BasicDatastoreService {
         config.setSessionRenewer((SessionRenewer) connectorConfig -> {
             log.debug("renewing session...");
             SessionRenewer.SessionRenewalHeader header = new SessionRenewer.SessionRenewalHeader();
-            connectorConfig.setSessionId(null);
+            // another connection may have renewed it already
+            sessionCache.invalidate(sessionKey, connectorConfig.getSessionId());
             PartnerConnection connection;
-            connection = new PartnerConnection(connectorConfig);
+            connection = openConnection(connectorConfig, sessionKey, sessionTtl, true);
             header.name = new QName("urn:partner.soap.sforce.com", "SessionHeader");
             header.headerElement = connection.getSessionHeader();
             log.debug("session renewed!");
             return header;
         });
-        return new PartnerConnection(config);
+        return openConnection(config, sessionKey, sessionTtl, reuseSession);
+    }
+
+    /**
+     * Open a connection with the cached session of the key or login if there is none or it is not reused.
+     */
+    private PartnerConnection openConnection(final ConnectorConfig config, final String sessionKey,
+            final long sessionTtl, final boolean reuseSession) throws ConnectionException {
+        final SessionCache.Session session =
+                reuseSession && sessionTtl > 0 ? sessionCache.get(sessionKey, sessionTtl) : null;
+        if (session != null) {
+            log.debug("reusing cached session");
+            config.setSessionId(session.getSessionId());
+            config.setServiceEndpoint(session.getServiceEndpoint());
+            return new PartnerConnection(config);
+        }
+        config.setSessionId(null);
+        final PartnerConnection connection = new PartnerConnection(config); // login
+        if (sessionTtl > 0) {
+            sessionCache.put(sessionKey, config.getSessionId(), config.getServiceEndpoint());
+        }
+        return connection;
     }
 
     public BulkConnection bulkConnect(final BasicDataStore datastore, final LocalConfiguration configuration)
@@ -139,6 +210,7 @@ public class BasicDatastoreService {
         bulkConfig.setSessionId(partnerConfig.getSessionId());
         // For session renew
         bulkConfig.setSessionRenewer(partnerConfig.getSessionRenewer());
+        bulkConfig.setAuthEndpoint(partnerConfig.getAuthEndpoint());
         bulkConfig.setUsername(partnerConfig.getUsername());
         bulkConfig.setPassword(partnerConfig.getPassword());
         /*
@@ -160,4 +232,78 @@ public class BasicDatastoreService {
         return new BulkConnection(bulkConfig);
     }
 
+    /**
+     * @return the scheduler of the bulk job polls, an instance of the configured class or an
+     * {@link AdaptivePollingScheduler} with the configured floor, ceiling and jitter.
+     */
+    public PollingScheduler createPollingScheduler(final LocalConfiguration configuration) {
+        final String schedulerClass = configuration.get(POLLING_SCHEDULER_KEY);
+        if (schedulerClass != null && !schedulerClass.trim().isEmpty()) {
+            try {
+                return PollingScheduler.class
+                        .cast(this.getClass().getClassLoader().loadClass(schedulerClass.trim()).newInstance());
+            } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+                throw new IllegalStateException("polling scheduler " + schedulerClass + " cannot be created", e);
+            }
+        }
+        final String floor = configuration.get(POLLING_FLOOR_KEY);
+        final String ceiling = configuration.get(POLLING_CEILING_KEY);
+        final String jitter = configuration.get(POLLING_JITTER_KEY);
+        return new AdaptivePollingScheduler(
+                floor != null && !floor.trim().isEmpty() ? Long.parseLong(floor.trim())
+                        : AdaptivePollingScheduler.DEFAULT_FLOOR,
+                ceiling != null && !ceiling.trim().isEmpty() ? Long.parseLong(ceiling.trim())
+                        : AdaptivePollingScheduler.DEFAULT_CEILING,
+                jitter != null && !jitter.trim().isEmpty() ? Double.parseDouble(jitter.trim())
+                        : AdaptivePollingScheduler.DEFAULT_JITTER);
+    }
+
+    /**
+     * @return the store of the incremental read watermarks, an instance of the configured class or by default a file
+     * in the configured directory.
+     */
+    public WatermarkStore createWatermarkStore(final LocalConfiguration configuration) {
+        final String storeClass = configuration.get(WATERMARK_STORE_KEY);
+        if (storeClass != null && !storeClass.trim().isEmpty()) {
+            try {
+                return WatermarkStore.class
+                        .cast(this.getClass().getClassLoader().loadClass(storeClass.trim()).newInstance());
+            } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+                throw new IllegalStateException("watermark store " + storeClass + " cannot be created", e);
+            }
+        }
+        final String directory = configuration.get(WATERMARK_DIRECTORY_KEY);
+        return new FileWatermarkStore(directory != null && !directory.trim().isEmpty() ? Paths.get(directory.trim())
+                : Paths.get(System.getProperty("user.home"), ".talend", "salesforce", "watermarks"));
+    }
+
+    /**
+     * @return the store of the bulk job checkpoints, in the configured directory.
+     */
+    public BulkJobCheckpointStore createBulkJobCheckpointStore(final LocalConfiguration configuration) {
+        final String directory = configuration.get(BULK_CHECKPOINT_DIRECTORY_KEY);
+        return new BulkJobCheckpointStore(directory != null && !directory.trim().isEmpty()
+                ? Paths.get(directory.trim())
+                : Paths.get(System.getProperty("user.home"), ".talend", "salesforce", "bulk-jobs"));
+    }
+
+    /**
+     * @return a spool of the bulk result files in the configured directory, the temporary directory by default,
+     * compressed when configured and limited by the configured quota in bytes, 0 meaning no limit.
+     */
+    public BulkResultSpool createBulkResultSpool(final LocalConfiguration configuration) {
+        final String directory = configuration.get(BULK_SPOOL_DIRECTORY_KEY);
+        final String compress = configuration.get(BULK_SPOOL_COMPRESS_KEY);
+        final String quota = configuration.get(BULK_SPOOL_QUOTA_KEY);
+        try {
+            return new BulkResultSpool(
+                    directory != null && !directory.trim().isEmpty() ? Paths.get(directory.trim())
+                            : Paths.get(System.getProperty("java.io.tmpdir")),
+                    compress != null && Boolean.parseBoolean(compress.trim()),
+                    quota != null && !quota.trim().isEmpty() ? Long.parseLong(quota.trim()) : DEFAULT_SPOOL_QUOTA);
+        } catch (IOException e) {
+            throw new IllegalStateException("bulk result spool cannot be created in " + directory, e);
+        }
+    }
+
 }
@@ -0,0 +1,94 @@
+package org.talend.components.salesforce.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.talend.components.salesforce.BulkJobCheckpoint;
+
+/**
+ * Keep each bulk job checkpoint in a local properties file named after the checkpoint. The file is replaced
+ * atomically at each save so that a crash never leaves a truncated file.
+ */
+public class BulkJobCheckpointStore {
+
+    private static final String FILE_EXTENSION = ".properties";
+
+    private static final String SEPARATOR = ",";
+
+    private final Path directory;
+
+    public BulkJobCheckpointStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the checkpoint saved with this name or null if there is none
+     */
+    public synchronized BulkJobCheckpoint load(final String name) {
+        final Path file = file(name);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (final InputStream is = Files.newInputStream(file)) {
+            properties.load(is);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read the bulk job checkpoint " + file, e);
+        }
+        final BulkJobCheckpoint checkpoint =
+                new BulkJobCheckpoint(properties.getProperty("query"), properties.getProperty("jobId"));
+        final String batchIds = properties.getProperty("batchIds");
+        if (batchIds != null) {
+            checkpoint.setBatchIds(split(batchIds));
+        }
+        checkpoint.getConsumedResultIds().addAll(split(properties.getProperty("consumedResultIds", "")));
+        return checkpoint;
+    }
+
+    public synchronized void save(final String name, final BulkJobCheckpoint checkpoint) {
+        final Properties properties = new Properties();
+        properties.setProperty("query", checkpoint.getQuery());
+        properties.setProperty("jobId", checkpoint.getJobId());
+        if (checkpoint.getBatchIds() != null) {
+            properties.setProperty("batchIds", String.join(SEPARATOR, checkpoint.getBatchIds()));
+        }
+        properties.setProperty("consumedResultIds", String.join(SEPARATOR, checkpoint.getConsumedResultIds()));
+        final Path file = file(name);
+        try {
+            Files.createDirectories(directory);
+            final Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (final OutputStream os = Files.newOutputStream(tmp)) {
+                properties.store(os, "Salesforce bulk job checkpoint");
+            }
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't write the bulk job checkpoint " + file, e);
+        }
+    }
+
+    public synchronized void remove(final String name) {
+        try {
+            Files.deleteIfExists(file(name));
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't remove the bulk job checkpoint " + file(name), e);
+        }
+    }
+
+    private Path file(final String name) {
+        return directory.resolve(name.replaceAll("[^A-Za-z0-9_.-]", "_") + FILE_EXTENSION);
+    }
+
+    private static List<String> split(final String ids) {
+        return ids.isEmpty() ? Collections.emptyList() : Arrays.asList(ids.split(SEPARATOR));
+    }
+}
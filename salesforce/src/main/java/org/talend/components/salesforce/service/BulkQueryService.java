@@ -12,19 +12,27 @@
 // ============================================================================
 package org.talend.components.salesforce.service;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import javax.json.JsonBuilderFactory;
 
@@ -37,11 +45,14 @@ import com.sforce.async.BulkConnection;
 import com.sforce.async.ConcurrencyMode;
 import com.sforce.async.ContentType;
 import com.sforce.async.JobInfo;
+import com.sforce.async.JobStateEnum;
 import com.sforce.async.OperationEnum;
 import com.sforce.async.QueryResultList;
 import com.sforce.ws.ConnectionException;
 
+import org.talend.components.salesforce.BulkCsvReader;
 import org.talend.components.salesforce.BulkResultSet;
+import org.talend.components.salesforce.BulkResultSpool;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -53,26 +64,53 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BulkQueryService {
 
-    private final String FILE_ENCODING = "UTF-8";
+    private JobInfo job;
 
-    private List<BatchInfo> batchInfoList;
+    private ConcurrencyMode concurrencyMode = null;
 
-    private JobInfo job;
+    /**
+     * marks the end of the results, compared by identity
+     */
+    private static final String NO_MORE_RESULTS = new String();
 
-    private List<String> baseFileHeader;
+    private final BlockingQueue<String> resultIds = new LinkedBlockingQueue<>();
 
-    private ConcurrencyMode concurrencyMode = null;
+    private final Map<String, String> resultBatches = new ConcurrentHashMap<>();
+
+    /**
+     * the results already read by a previous run, they are not handed out again
+     */
+    private final Set<String> skippedResults = ConcurrentHashMap.newKeySet();
 
-    private Iterator<String> queryResultIDs = null;
+    private Consumer<String> jobCreationListener = jobId -> {
+    };
+
+    private final AtomicReference<Exception> pollingError = new AtomicReference<>();
+
+    private Thread batchPoller;
 
     private boolean safetySwitch = true;
 
+    private BulkResultSpool resultSpool;
+
     private int chunkSize;
 
-    private int chunkSleepTime;
+    private PollingScheduler pollingScheduler = new AdaptivePollingScheduler();
+
+    /**
+     * the metrics of the polling, for all the polling loops of the job
+     */
+    private final AtomicInteger polls = new AtomicInteger();
+
+    private final AtomicLong pollWaitTime = new AtomicLong();
 
     private long jobTimeOut;
 
+    /**
+     * the time to wait for the batches to complete once their polling started, in milliseconds
+     */
+    private long batchTimeout = MAX_BATCH_EXECUTION_TIME;
+
     private final Messages messagesI18n;
 
     private final JsonBuilderFactory jsonBuilderFactory;
@@ -85,8 +123,6 @@ public class BulkQueryService {
 
     public static final int DEFAULT_CHUNK_SIZE = 100_000;
 
-    public static final int DEFAULT_CHUNK_SLEEP_TIME = 15;
-
     public static final int MAX_CHUNK_SIZE = 250_000;
 
     public static final int DEFAULT_JOB_TIME_OUT = 0;
@@ -100,7 +136,6 @@ public class BulkQueryService {
         this.jsonBuilderFactory = jsonBuilderFactory;
         this.messagesI18n = messages;
         this.chunkSize = DEFAULT_CHUNK_SIZE;
-        chunkSleepTime = DEFAULT_CHUNK_SLEEP_TIME;
         this.jobTimeOut = DEFAULT_JOB_TIME_OUT;
     }
 
@@ -113,21 +148,39 @@ public class BulkQueryService {
     }
 
     /**
-     * Creates and executes job for bulk query. Job must be finished in 2 minutes on Salesforce side.<br/>
+     * Creates and executes job for bulk query then reads the results of its batches.
+     *
+     * @param moduleName     - input module name.
+     * @param queryStatement - to be executed.
+     * @throws AsyncApiException
+     * @throws InterruptedException
+     * @throws ConnectionException
+     * @see #createBulkQuery(String, String)
+     * @see #readBatches(String, List)
+     */
+    public void doBulkQuery(String moduleName, String queryStatement)
+            throws AsyncApiException, InterruptedException, ConnectionException {
+        final List<String> batchIds = createBulkQuery(moduleName, queryStatement);
+        retrieveResultsOfQuery(batchIds);
+    }
+
+    /**
+     * Creates job for bulk query and returns the batches holding its results.<br/>
      * From Salesforce documentation two scenarios are possible here:
      * <ul>
      * <li>simple bulk query. It should have status - {@link BatchStateEnum#Completed}.</li>
      * <li>primary key chunking bulk query. It should return first batch info with status - {@link BatchStateEnum#NotProcessed}.<br/>
-     * Other batch info's should have status - {@link BatchStateEnum#Completed}</li>
+     * The chunk batches are created by then, they can still be queued or in progress.</li>
      * </ul>
      *
      * @param moduleName     - input module name.
      * @param queryStatement - to be executed.
+     * @return the id of the query batch or the ids of its chunk batches.
      * @throws AsyncApiException
      * @throws InterruptedException
      * @throws ConnectionException
      */
-    public void doBulkQuery(String moduleName, String queryStatement)
+    public List<String> createBulkQuery(String moduleName, String queryStatement)
             throws AsyncApiException, InterruptedException, ConnectionException {
         job = new JobInfo();
         job.setObject(moduleName);
@@ -140,27 +193,56 @@ public class BulkQueryService {
         if (job.getId() == null) { // job creation failed
             throw new IllegalStateException("failedBatch" + job);
         }
+        jobCreationListener.accept(job.getId());
 
         ByteArrayInputStream bout = new ByteArrayInputStream(queryStatement.getBytes(StandardCharsets.UTF_8));
-        BatchInfo info = createBatchFromStream(job, bout);
-        int secToWait = 1;
+        return getResultBatches(createBatchFromStream(job, bout));
+    }
+
+    /**
+     * Attaches to a job created by {@link #createBulkQuery(String, String)} in a previous run and returns the batches
+     * holding its results, waiting for its query batch to be processed if needed.
+     *
+     * @param jobId - the bulk query job.
+     * @return the id of the query batch or the ids of its chunk batches, null if the job can not be read.
+     * @throws AsyncApiException if the job does not exist any more
+     * @throws InterruptedException
+     * @throws ConnectionException
+     */
+    public List<String> attachBulkQuery(String jobId)
+            throws AsyncApiException, InterruptedException, ConnectionException {
+        job = getJobStatus(jobId);
+        if (job.getState() == JobStateEnum.Aborted || job.getState() == JobStateEnum.Failed) {
+            return null;
+        }
+        // the query batch is the first one, the chunk batches are created when it is processed
+        final BatchInfo queryBatch = Arrays.stream(getBatchInfoList(jobId).getBatchInfo())
+                .min(Comparator.comparing(BatchInfo::getCreatedDate))
+                .orElse(null);
+        return queryBatch == null ? null : getResultBatches(queryBatch);
+    }
+
+    /**
+     * Waits for the query batch to be processed.
+     *
+     * @return the id of the query batch or the ids of its chunk batches.
+     */
+    private List<String> getResultBatches(BatchInfo info)
+            throws AsyncApiException, InterruptedException, ConnectionException {
+        final long start = System.currentTimeMillis();
         int tryCount = 0;
         while (true) {
-            log.debug("Awaiting " + secToWait + " seconds for results ...\n" + info);
-            Thread.sleep(secToWait * 1000);
+            // the records expected by the query batch are unknown
+            waitBeforePoll(new PollProgress(tryCount++, System.currentTimeMillis() - start,
+                    info.getNumberRecordsProcessed(), 0));
             info = getBatchInfo(job.getId(), info.getId());
+            polls.incrementAndGet();
             if (info.getState() == BatchStateEnum.Completed
                     || (BatchStateEnum.NotProcessed == info.getState() && 0 < chunkSize)) {
                 break;
             } else if (info.getState() == BatchStateEnum.Failed) {
                 throw new IllegalStateException(info.getStateMessage());
             }
-            // after 3 attempt to get the result we multiply the time to wait by 2
-            // if secToWait < 120 : don't increase exponentially, no need to sleep more than 128 seconds
-            tryCount++;
-            if (tryCount % 3 == 0 && secToWait < 120) {
-                secToWait = secToWait * 2;
-            }
 
             // The user can specify a global timeout for the job processing to suites some bulk limits :
             // https://developer.salesforce.com/docs/atlas.en-us.api_asynch.meta/api_asynch/asynch_api_concepts_limits.htm
@@ -172,20 +254,96 @@ public class BulkQueryService {
             }
         }
 
-        retrieveResultsOfQuery(info);
+        if (BatchStateEnum.Completed == info.getState()) {
+            return Collections.singletonList(info.getId());
+        }
+        final String queryBatchId = info.getId();
+        return Arrays.stream(getBatchInfoList(job.getId()).getBatchInfo())
+                .map(BatchInfo::getId)
+                .filter(id -> !id.equals(queryBatchId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the results of some batches of a job created by {@link #createBulkQuery(String, String)}, possibly by
+     * another instance on another worker.
+     *
+     * @param jobId    - the bulk query job.
+     * @param batchIds - the batches to read.
+     * @throws AsyncApiException
+     * @throws ConnectionException
+     */
+    public void readBatches(String jobId, List<String> batchIds) throws AsyncApiException, ConnectionException {
+        job = getJobStatus(jobId);
+        retrieveResultsOfQuery(batchIds);
+    }
+
+    /**
+     * Reads the results of some batches of the job, except the results already read.
+     *
+     * @param jobId - the bulk query job.
+     * @param batchIds - the batches to read.
+     * @param consumedResultIds - the results to skip.
+     * @throws AsyncApiException
+     * @throws ConnectionException
+     */
+    public void readBatches(String jobId, List<String> batchIds, Collection<String> consumedResultIds)
+            throws AsyncApiException, ConnectionException {
+        skippedResults.addAll(consumedResultIds);
+        readBatches(jobId, batchIds);
+    }
+
+    /**
+     * @param jobCreationListener called with the id of the job as soon as it is created, before its batch
+     */
+    public void setJobCreationListener(final Consumer<String> jobCreationListener) {
+        this.jobCreationListener = jobCreationListener;
+    }
+
+    public String getJobId() {
+        return job == null ? null : job.getId();
+    }
+
+    /**
+     * @return the maximum number of records of a pk chunk batch of the job, 0 when the job is not chunked
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param resultSpool the spool to download the result files to before reading them, null to read them from the
+     * connection
+     */
+    public void setResultSpool(final BulkResultSpool resultSpool) {
+        this.resultSpool = resultSpool;
     }
 
     public BulkResultSet getQueryResultSet(String resultId) throws AsyncApiException, IOException, ConnectionException {
-        final com.csvreader.CsvReader baseFileReader = new com.csvreader.CsvReader(new BufferedReader(
-                new InputStreamReader(getQueryResultStream(job.getId(), batchInfoList.get(0).getId(), resultId),
-                        FILE_ENCODING)), ',');
+        final String batchId = resultBatches.get(resultId);
+        final BulkCsvReader baseFileReader = resultSpool == null
+                ? new BulkCsvReader(getQueryResultStream(job.getId(), batchId, resultId))
+                : new BulkCsvReader(
+                        resultSpool.spool(resultId, () -> getQueryResultStream(job.getId(), batchId, resultId)),
+                        BulkResultSpool.READ_BUFFER_SIZE, false);
         baseFileReader.setSafetySwitch(safetySwitch);
+        List<String> baseFileHeader = null;
         if (baseFileReader.readRecord()) {
             baseFileHeader = Arrays.asList(baseFileReader.getValues());
         }
         return new BulkResultSet(baseFileReader, baseFileHeader, jsonBuilderFactory);
     }
 
+    /**
+     * Open the next result file, can be called by several threads to download the results in parallel.
+     *
+     * @return the result set of the next result file or null if all of them were opened
+     */
+    public BulkResultSet nextResultSet() throws AsyncApiException, IOException, ConnectionException {
+        final String resultId = nextResultId();
+        return resultId == null ? null : getQueryResultSet(resultId);
+    }
+
     private JobInfo createJob(JobInfo job) throws AsyncApiException, ConnectionException {
         try {
             if (0 != chunkSize) {
@@ -232,6 +390,18 @@ public class BulkQueryService {
         }
     }
 
+    private JobInfo getJobStatus(String jobID) throws AsyncApiException, ConnectionException {
+        try {
+            return bulkConnection.getJobStatus(jobID);
+        } catch (AsyncApiException sfException) {
+            if (AsyncExceptionCode.InvalidSessionId.equals(sfException.getExceptionCode())) {
+                renewSession();
+                return getJobStatus(jobID);
+            }
+            throw sfException;
+        }
+    }
+
     private BatchInfo getBatchInfo(String jobID, String batchID) throws AsyncApiException, ConnectionException {
         try {
             return bulkConnection.getBatchInfo(jobID, batchID);
@@ -279,92 +449,160 @@ public class BulkQueryService {
      * https://developer.salesforce.com/docs/atlas.en-us.api_asynch.meta/api_asynch/
      * asynch_api_code_curl_walkthrough_pk_chunking.htm
      *
-     * If some batches were queued or in progress, we must wait till they completed or failed/notprocessed.
+     * The batches are polled in a background thread and the results of each batch are available to
+     * {@link #nextResultId()} as soon as it is completed, so the first results are read while the other batches are
+     * still queued or in progress.
      * Quick instructions for primary key chunking flow may be read here:
      * https://developer.salesforce.com/docs/atlas.en-us.api_asynch.meta/api_asynch/asynch_api_bulk_query_processing.htm
      *
-     * @param info - batch info from created job.
-     * @throws AsyncApiException
-     * @throws ConnectionException
-     * @throws InterruptedException
+     * @param batchIds - the batches to read.
      */
-    private void retrieveResultsOfQuery(BatchInfo info)
-            throws AsyncApiException, ConnectionException, InterruptedException {
+    private void retrieveResultsOfQuery(final List<String> batchIds) {
+        batchPoller = new Thread(() -> pollBatches(new HashSet<>(batchIds)),
+                "salesforce-bulk-poller-" + job.getId());
+        batchPoller.setDaemon(true);
+        batchPoller.start();
+    }
 
-        if (BatchStateEnum.Completed == info.getState()) {
-            QueryResultList list = getQueryResultList(job.getId(), info.getId());
-            queryResultIDs = new HashSet<String>(Arrays.asList(list.getResult())).iterator();
-            this.batchInfoList = Collections.singletonList(info);
-            return;
-        }
-        BatchInfoList batchInfoList = null;
-        Set<String> resultSet = new HashSet<>();
-        boolean isInProgress = true;
-        while (isInProgress) {
-            batchInfoList = getBatchInfoList(job.getId());
-            isInProgress = isJobBatchesInProgress(batchInfoList, info);
-            if (isInProgress) {
-                Thread.sleep(chunkSleepTime);
-                long processingTime = System.currentTimeMillis() - job.getCreatedDate().getTimeInMillis();
-                if (processingTime > MAX_BATCH_EXECUTION_TIME) {
-                    // Break processing and return processed data if any batch was processed.
-                    log.warn(messagesI18n.warnBatchTimeout());
-                    break;
+    /**
+     * Poll the batches until all of them are completed and add their results as they complete.
+     * If any batch returns {@link BatchStateEnum#Failed} or {@link BatchStateEnum#NotProcessed}, or is still pending
+     * after the batch timeout, the error is thrown by {@link #nextResultId()} once the results of the batches completed
+     * before are read.
+     *
+     * @param pendingBatches - the batches whose results were not added yet.
+     */
+    private void pollBatches(final Set<String> pendingBatches) {
+        final long start = System.currentTimeMillis();
+        int tryCount = 0;
+        try {
+            while (true) {
+                long recordsProcessed = 0;
+                final BatchInfoList batchInfoList = getBatchInfoList(job.getId());
+                polls.incrementAndGet();
+                for (BatchInfo batch : batchInfoList.getBatchInfo()) {
+                    if (!pendingBatches.contains(batch.getId())) {
+                        continue;
+                    }
+                    recordsProcessed += batch.getNumberRecordsProcessed();
+                    /*
+                     * More details about every batch state can be found here:
+                     * https://developer.salesforce.com/docs/atlas.en-us.api_asynch.meta/api_asynch/asynch_api_batches_interpret_status.htm
+                     */
+                    switch (batch.getState()) {
+                    case Completed:
+                        addResults(batch.getId());
+                        pendingBatches.remove(batch.getId());
+                        recordsProcessed -= batch.getNumberRecordsProcessed();
+                        break;
+                    case NotProcessed:
+                        /* If batch was not processed we should abort further execution.
+                         * From official documentation:
+                         * The batch won’t be processed. This state is assigned when a job is aborted while the batch is queued.
+                         */
+                    case Failed:
+                        throw new IllegalStateException("ERROR_IN_BULK_QUERY_PROCESSING: " + batch.getStateMessage());
+                    case Queued:
+                    case InProgress:
+                        break;
+                    }
                 }
+                if (pendingBatches.isEmpty()) {
+                    return;
+                }
+                // counted from the first poll of this service, the job may have been created by a previous run
+                if (System.currentTimeMillis() - start > batchTimeout) {
+                    // the results of the completed batches are read before the error is thrown
+                    throw new IllegalStateException(
+                            messagesI18n.errorBatchTimeout(pendingBatches.size(), batchTimeout / 1000));
+                }
+                // a chunk batch holds up to chunkSize records
+                waitBeforePoll(new PollProgress(tryCount++, System.currentTimeMillis() - start, recordsProcessed,
+                        (long) chunkSize * pendingBatches.size()));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (AsyncApiException | ConnectionException | RuntimeException e) {
+            pollingError.set(e);
+        } finally {
+            log.info("Bulk job {} polled {} times, {}ms spent waiting", job.getId(), polls.get(), pollWaitTime.get());
+            resultIds.add(NO_MORE_RESULTS);
         }
-        for (BatchInfo batch : batchInfoList.getBatchInfo()) {
-            if (batch.getId().equals(info.getId())) {
-                continue;
-            }
-            resultSet.addAll(Arrays.asList(getQueryResultList(job.getId(), batch.getId()).getResult()));
-        }
+    }
+
+    private void waitBeforePoll(final PollProgress progress) throws InterruptedException {
+        final long delay = pollingScheduler.nextDelay(progress);
+        log.debug("Awaiting {}ms for results of job {}", delay, job.getId());
+        Thread.sleep(delay);
+        pollWaitTime.addAndGet(delay);
+    }
+
+    public void setPollingScheduler(final PollingScheduler pollingScheduler) {
+        this.pollingScheduler = pollingScheduler;
+    }
 
-        queryResultIDs = resultSet.iterator();
-        this.batchInfoList = Arrays.asList(batchInfoList.getBatchInfo());
+    void setBatchTimeout(final long batchTimeout) {
+        this.batchTimeout = batchTimeout;
     }
 
     /**
-     * Checks if job batch infos were processed correctly. Only if all batches were {@link BatchStateEnum#Completed} are acceptable.<br/>
-     * If any of batches returns {@link BatchStateEnum#Failed} or {@link BatchStateEnum#NotProcessed} - throws an exception.
-     *
-     * @param batchInfoList - batch infos related to the specific job.
-     * @param info          - batch info for query batch.
-     * @return true - if job is not processed fully, otherwise - false.
+     * @return the number of polls of the batch states done for the job
      */
-    private boolean isJobBatchesInProgress(BatchInfoList batchInfoList, BatchInfo info) {
-        for (BatchInfo batch : batchInfoList.getBatchInfo()) {
-            if (batch.getId().equals(info.getId())) {
-                continue;
-            }
+    public int getPollCount() {
+        return polls.get();
+    }
 
-            /*
-             * More details about every batch state can be found here:
-             * https://developer.salesforce.com/docs/atlas.en-us.api_asynch.meta/api_asynch/asynch_api_batches_interpret_status.htm
-             */
-            switch (batch.getState()) {
-            case Completed:
-                break;
-            case NotProcessed:
-                /* If batch was not processed we should abort further execution.
-                 * From official documentation:
-                 * The batch won’t be processed. This state is assigned when a job is aborted while the batch is queued.
-                 */
-            case Failed:
-                throw new IllegalStateException("ERROR_IN_BULK_QUERY_PROCESSING: " + batch.getStateMessage());
-            case Queued:
-            case InProgress:
-                return true;
+    /**
+     * @return the time spent waiting between the polls, in milliseconds
+     */
+    public long getPollWaitTime() {
+        return pollWaitTime.get();
+    }
+
+    private void addResults(final String batchId) throws AsyncApiException, ConnectionException {
+        for (String resultId : getQueryResultList(job.getId(), batchId).getResult()) {
+            if (skippedResults.contains(resultId)) {
+                log.debug("Skipping the result {} read by a previous run", resultId);
+            } else if (resultBatches.putIfAbsent(resultId, batchId) == null) {
+                resultIds.add(resultId);
             }
         }
-        return false;
     }
 
+    /**
+     * Wait for the next result of a completed batch, can be called by several threads.
+     *
+     * @return the next result id or null if all the results were handed out.
+     */
     public String nextResultId() {
-        String resultId = null;
-        if (queryResultIDs != null && queryResultIDs.hasNext()) {
-            resultId = queryResultIDs.next();
+        final String resultId;
+        try {
+            resultId = resultIds.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (resultId != NO_MORE_RESULTS) {
+            return resultId;
+        }
+        resultIds.add(NO_MORE_RESULTS); // for the other readers
+        final Exception error = pollingError.getAndSet(null);
+        if (AsyncApiException.class.isInstance(error)) {
+            throw new IllegalStateException(AsyncApiException.class.cast(error).getExceptionMessage(), error);
+        } else if (RuntimeException.class.isInstance(error)) {
+            throw RuntimeException.class.cast(error);
+        } else if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        return null;
+    }
+
+    /**
+     * Stop polling the batches which are still in progress.
+     */
+    public void close() {
+        if (batchPoller != null) {
+            batchPoller.interrupt();
         }
-        return resultId;
     }
 }
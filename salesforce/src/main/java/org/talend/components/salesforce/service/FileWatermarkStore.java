@@ -0,0 +1,71 @@
+package org.talend.components.salesforce.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Keep the watermarks in a local properties file. The file is replaced atomically at each save so that a crash
+ * never leaves a truncated file.
+ */
+public class FileWatermarkStore implements WatermarkStore {
+
+    private static final String FILE_NAME = "watermarks.properties";
+
+    private final Path file;
+
+    public FileWatermarkStore(final Path directory) {
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    @Override
+    public synchronized String load(final String name) {
+        return read().getProperty(name);
+    }
+
+    @Override
+    public synchronized void save(final String name, final String watermark) {
+        final Properties watermarks = read();
+        watermarks.setProperty(name, watermark);
+        write(watermarks);
+    }
+
+    @Override
+    public synchronized void remove(final String name) {
+        final Properties watermarks = read();
+        if (watermarks.remove(name) != null) {
+            write(watermarks);
+        }
+    }
+
+    private Properties read() {
+        final Properties watermarks = new Properties();
+        if (Files.exists(file)) {
+            try (final InputStream is = Files.newInputStream(file)) {
+                watermarks.load(is);
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't read the watermarks from " + file, e);
+            }
+        }
+        return watermarks;
+    }
+
+    private void write(final Properties watermarks) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path tmp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+            try (final OutputStream os = Files.newOutputStream(tmp)) {
+                watermarks.store(os, "Salesforce incremental read watermarks");
+            }
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't write the watermarks to " + file, e);
+        }
+    }
+}
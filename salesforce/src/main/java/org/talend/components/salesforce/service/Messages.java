@@ -5,7 +5,11 @@ import org.talend.sdk.component.api.internationalization.Internationalized;
 @Internationalized
 public interface Messages {
 
-    String warnBatchTimeout();
+    String errorBatchTimeout(final int pendingBatches, final long timeout);
+
+    String errorIncrementalFieldNotSelected(final String field);
+
+    String errorEmptyWatermarkName();
 
     String healthCheckOk();
     String healthCheckFailed(final String cause);
@@ -0,0 +1,153 @@
+package org.talend.components.salesforce.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sforce.ws.ConnectionException;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keep the describe results of each org in a bounded in memory LRU and, when a directory is given, in one file per
+ * org and object so that they survive the jobs. An entry older than the time to live is loaded again.
+ * The files are replaced atomically, an unreadable file is ignored and loaded again.
+ */
+@Slf4j
+class MetadataCache {
+
+    private static final String FILE_EXTENSION = ".describe";
+
+    private final long timeToLive;
+
+    private final Path directory;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param directory the directory of the disk store, null to keep the entries in memory only
+     */
+    MetadataCache(final int maxEntries, final long timeToLive, final Path directory) {
+        this.timeToLive = timeToLive;
+        this.directory = directory;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    <T extends Serializable> T get(final String org, final String object, final Loader<T> loader)
+            throws ConnectionException {
+        final String key = org + '/' + object;
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (!isValid(entry)) {
+            entry = read(org, object);
+            if (isValid(entry)) {
+                synchronized (entries) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        if (isValid(entry)) {
+            return (T) entry.getValue();
+        }
+        final T value = loader.load();
+        entry = new Entry(value, System.currentTimeMillis());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        write(org, object, entry);
+        return value;
+    }
+
+    void invalidate(final String org, final String object) {
+        synchronized (entries) {
+            entries.remove(org + '/' + object);
+        }
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(file(org, object));
+            } catch (IOException e) {
+                log.warn("Can't delete the cached description of {}", object, e);
+            }
+        }
+    }
+
+    private boolean isValid(final Entry entry) {
+        return entry != null && System.currentTimeMillis() - entry.getCreated() < timeToLive;
+    }
+
+    private Path file(final String org, final String object) {
+        return directory.resolve(safe(org)).resolve(safe(object) + FILE_EXTENSION);
+    }
+
+    private static String safe(final String name) {
+        return name.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    private Entry read(final String org, final String object) {
+        if (directory == null) {
+            return null;
+        }
+        final Path file = file(org, object);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (final InputStream is = Files.newInputStream(file);
+                final ObjectInputStream ois = new ObjectInputStream(is)) {
+            return Entry.class.cast(ois.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.debug("Ignoring the cached description {}", file, e);
+            return null;
+        }
+    }
+
+    private void write(final String org, final String object, final Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        final Path file = file(org, object);
+        try {
+            Files.createDirectories(file.getParent());
+            final Path tmp = Files.createTempFile(file.getParent(), safe(object), ".tmp");
+            try (final OutputStream os = Files.newOutputStream(tmp);
+                    final ObjectOutputStream oos = new ObjectOutputStream(os)) {
+                oos.writeObject(entry);
+            }
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Can't write the cached description to {}", file, e);
+        }
+    }
+
+    @Data
+    static class Entry implements Serializable {
+
+        private final Serializable value;
+
+        private final long created;
+    }
+
+    @FunctionalInterface
+    interface Loader<T extends Serializable> {
+
+        T load() throws ConnectionException;
+    }
+}
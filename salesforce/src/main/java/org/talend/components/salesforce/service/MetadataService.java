@@ -0,0 +1,127 @@
+package org.talend.components.salesforce.service;
+
+import static java.util.stream.Collectors.toList;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sforce.soap.partner.DescribeGlobalSObjectResult;
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.fault.ApiFault;
+import com.sforce.ws.ConnectionException;
+
+import org.talend.components.salesforce.dataset.QueryDataSet;
+import org.talend.components.salesforce.datastore.BasicDataStore;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.service.Service;
+import org.talend.sdk.component.api.service.completion.SuggestionValues;
+import org.talend.sdk.component.api.service.completion.Suggestions;
+import org.talend.sdk.component.api.service.configuration.LocalConfiguration;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Describe the modules through a {@link MetadataCache} keyed by org and module, the describe calls being slow and
+ * their results rarely changing. The SOAP describe results have no modification date, so an entry is reloaded
+ * after its time to live or when a query built from it fails.
+ */
+@Slf4j
+@Service
+public class MetadataService {
+
+    public static final String GET_MODULES = "getmodules";
+
+    private static final String CACHE_DIRECTORY_KEY = "org.talend.component.salesforce.metadata.cache.directory";
+
+    private static final String CACHE_TTL_KEY = "org.talend.component.salesforce.metadata.cache.ttl";
+
+    private static final String CACHE_SIZE_KEY = "org.talend.component.salesforce.metadata.cache.size";
+
+    private static final long DEFAULT_CACHE_TTL = 60 * 60 * 1000;
+
+    private static final int DEFAULT_CACHE_SIZE = 500;
+
+    /**
+     * the cache object of the describeGlobal result, not a valid module name
+     */
+    private static final String MODULES = "#modules";
+
+    @Service
+    private BasicDatastoreService datastoreService;
+
+    @Service
+    private LocalConfiguration localConfiguration;
+
+    @Getter(lazy = true)
+    private final MetadataCache metadataCache = createMetadataCache();
+
+    @Suggestions(GET_MODULES)
+    public SuggestionValues loadModules(@Option("dataStore") final BasicDataStore datastore) {
+        try {
+            return new SuggestionValues(true, listModules(datastore).stream()
+                    .map(module -> new SuggestionValues.Item(module, module))
+                    .collect(toList()));
+        } catch (ConnectionException e) {
+            if (ApiFault.class.isInstance(e)) {
+                throw new IllegalStateException(ApiFault.class.cast(e).getExceptionMessage(), e);
+            }
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the names of the queryable modules supported by the bulk api
+     */
+    public List<String> listModules(final BasicDataStore datastore) throws ConnectionException {
+        final PartnerConnection connection = datastoreService.connect(datastore, localConfiguration);
+        return getMetadataCache().get(orgId(connection), MODULES, () -> {
+            final ArrayList<String> modules = new ArrayList<>();
+            for (DescribeGlobalSObjectResult module : connection.describeGlobal().getSobjects()) {
+                if (module.isQueryable() && !QueryDataSet.MODULE_NOT_SUPPORT_BULK_API.contains(module.getName())) {
+                    modules.add(module.getName());
+                }
+            }
+            return modules;
+        });
+    }
+
+    public ModuleDescription describeModule(final BasicDataStore datastore, final String moduleName)
+            throws ConnectionException {
+        final PartnerConnection connection = datastoreService.connect(datastore, localConfiguration);
+        return getMetadataCache().get(orgId(connection), moduleName,
+                () -> ModuleDescription.of(connection.describeSObject(moduleName)));
+    }
+
+    /**
+     * Drop the cached description of a module, it will be described again the next time it is used.
+     */
+    public void invalidateModule(final BasicDataStore datastore, final String moduleName) {
+        try {
+            final PartnerConnection connection = datastoreService.connect(datastore, localConfiguration);
+            getMetadataCache().invalidate(orgId(connection), moduleName);
+        } catch (ConnectionException e) {
+            log.warn("Can't invalidate the cached description of {}", moduleName, e);
+        }
+    }
+
+    /**
+     * @return the org id, the last part of the service endpoint like
+     * https://ap1.salesforce.com/services/Soap/u/37.0/00D90000000eSq3
+     */
+    private static String orgId(final PartnerConnection connection) {
+        final String endpoint = connection.getConfig().getServiceEndpoint();
+        return endpoint.substring(endpoint.lastIndexOf('/') + 1);
+    }
+
+    private MetadataCache createMetadataCache() {
+        final String ttl = localConfiguration.get(CACHE_TTL_KEY);
+        final String size = localConfiguration.get(CACHE_SIZE_KEY);
+        final String directory = localConfiguration.get(CACHE_DIRECTORY_KEY);
+        return new MetadataCache(
+                size != null && !size.trim().isEmpty() ? Integer.parseInt(size.trim()) : DEFAULT_CACHE_SIZE,
+                ttl != null && !ttl.trim().isEmpty() ? Long.parseLong(ttl.trim()) : DEFAULT_CACHE_TTL,
+                directory != null && !directory.trim().isEmpty() ? Paths.get(directory.trim()) : null);
+    }
+}
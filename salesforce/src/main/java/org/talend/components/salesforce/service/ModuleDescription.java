@@ -0,0 +1,29 @@
+package org.talend.components.salesforce.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sforce.soap.partner.DescribeSObjectResult;
+import com.sforce.soap.partner.Field;
+
+import lombok.Data;
+
+/**
+ * The description of a module as returned by describeSObject, reduced to the fields.
+ */
+@Data
+public class ModuleDescription implements Serializable {
+
+    private final String name;
+
+    private final List<ModuleField> fields;
+
+    public static ModuleDescription of(final DescribeSObjectResult result) {
+        final List<ModuleField> fields = new ArrayList<>(result.getFields().length);
+        for (Field field : result.getFields()) {
+            fields.add(ModuleField.of(field));
+        }
+        return new ModuleDescription(result.getName(), fields);
+    }
+}
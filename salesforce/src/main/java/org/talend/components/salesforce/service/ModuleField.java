@@ -0,0 +1,35 @@
+package org.talend.components.salesforce.service;
+
+import java.io.Serializable;
+
+import com.sforce.soap.partner.Field;
+
+import lombok.Data;
+
+/**
+ * The part of a module field description used by the components, kept by the metadata cache.
+ */
+@Data
+public class ModuleField implements Serializable {
+
+    private final String name;
+
+    /**
+     * the name of the {@link com.sforce.soap.partner.FieldType}
+     */
+    private final String type;
+
+    private final String compoundFieldName;
+
+    private final int length;
+
+    /**
+     * true for the formula fields
+     */
+    private final boolean calculated;
+
+    public static ModuleField of(final Field field) {
+        return new ModuleField(field.getName(), field.getType().name(), field.getCompoundFieldName(),
+                field.getLength(), field.isCalculated());
+    }
+}
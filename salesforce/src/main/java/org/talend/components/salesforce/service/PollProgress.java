@@ -0,0 +1,30 @@
+package org.talend.components.salesforce.service;
+
+import lombok.Data;
+
+/**
+ * The progress of the batches of a bulk job waited for, as seen by a poll.
+ */
+@Data
+public class PollProgress {
+
+    /**
+     * the number of polls done so far
+     */
+    private final int polls;
+
+    /**
+     * the time since the first poll, in milliseconds
+     */
+    private final long elapsed;
+
+    /**
+     * the records processed by the batches, from their numberRecordsProcessed
+     */
+    private final long recordsProcessed;
+
+    /**
+     * the records expected from the batches, 0 when it is unknown
+     */
+    private final long recordsExpected;
+}
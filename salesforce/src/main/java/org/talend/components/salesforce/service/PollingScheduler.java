@@ -0,0 +1,15 @@
+package org.talend.components.salesforce.service;
+
+/**
+ * Decide how long {@link BulkQueryService} waits before polling the state of the batches of a bulk job again.
+ * An implementation is created once per job and may keep a state between the polls.
+ */
+@FunctionalInterface
+public interface PollingScheduler {
+
+    /**
+     * @param progress the progress of the batches still waited for, as of the last poll
+     * @return the time to wait before the next poll, in milliseconds
+     */
+    long nextDelay(PollProgress progress);
+}
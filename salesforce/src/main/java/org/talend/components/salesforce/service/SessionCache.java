@@ -0,0 +1,72 @@
+package org.talend.components.salesforce.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.Data;
+
+/**
+ * The sessions of the logins done by {@link BasicDatastoreService}. A session is shared by the partner and the bulk
+ * connections of the same user on the same endpoint until its time to live ends or Salesforce rejects it.
+ */
+class SessionCache {
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @return the session of the key if it is younger than the time to live, null otherwise
+     */
+    Session get(final String key, final long timeToLive) {
+        final Session session = sessions.get(key);
+        if (session == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - session.getCreated() >= timeToLive) {
+            sessions.remove(key, session);
+            return null;
+        }
+        return session;
+    }
+
+    void put(final String key, final String sessionId, final String serviceEndpoint) {
+        sessions.put(key, new Session(sessionId, serviceEndpoint, System.currentTimeMillis()));
+    }
+
+    /**
+     * Drop a rejected session, a newer session of the same key is kept.
+     */
+    void invalidate(final String key, final String sessionId) {
+        sessions.computeIfPresent(key, (k, session) -> session.getSessionId().equals(sessionId) ? null : session);
+    }
+
+    /**
+     * @return the key of the sessions of a user on an endpoint, the password is hashed so that a session is not
+     * reused once it changed
+     */
+    static String key(final String endpoint, final String user, final String password) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            final StringBuilder key = new StringBuilder(endpoint).append('|').append(user).append('|');
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    static class Session {
+
+        private final String sessionId;
+
+        private final String serviceEndpoint;
+
+        private final long created;
+    }
+}
@@ -0,0 +1,19 @@
+package org.talend.components.salesforce.service;
+
+/**
+ * Where the watermarks of the incremental reads are kept between two runs, a watermark being the highest
+ * modification timestamp read, as a SOQL date time literal.
+ * An implementation with a public no argument constructor can replace the default {@link FileWatermarkStore}
+ * with the <code>org.talend.component.salesforce.watermark.store</code> configuration key.
+ */
+public interface WatermarkStore {
+
+    /**
+     * @return the watermark saved with this name or null if there is none
+     */
+    String load(String name);
+
+    void save(String name, String watermark);
+
+    void remove(String name);
+}
@@ -1,5 +1,6 @@
 package org.talend.components.salesforce.soql;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,17 +11,17 @@ import java.util.List;
  */
 public class FieldDescription {
 
-	private String fullName;
+	private final String fullName;
 
-	private String simpleName;
+	private final String simpleName;
 
-	private List<String> entityNames;
+	private final List<String> entityNames;
 
 	public FieldDescription(String fullName, String simpleName, List<String> entityNames) {
 		super();
 		this.fullName = fullName;
 		this.simpleName = simpleName;
-		this.entityNames = entityNames;
+		this.entityNames = Collections.unmodifiableList(entityNames);
 	}
 
 	public String getFullName() {
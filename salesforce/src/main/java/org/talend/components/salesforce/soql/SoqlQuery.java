@@ -13,12 +13,22 @@
 package org.talend.components.salesforce.soql;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.talend.components.salesforce.soql.parser.SoqlBaseListener;
+import org.talend.components.salesforce.soql.parser.SoqlErrorListener;
 import org.talend.components.salesforce.soql.parser.SoqlLexer;
 import org.talend.components.salesforce.soql.parser.SoqlParser;
 import org.talend.components.salesforce.soql.parser.SoqlParser.FieldContext;
@@ -30,53 +40,139 @@ import org.talend.components.salesforce.soql.parser.SoqlParser.SelectClauseConte
 import org.talend.components.salesforce.soql.parser.SoqlParser.SubSelectClauseContext;
 
 /**
- * Parses SOQL query and provides methods to access specific query parts
+ * Parsed SOQL query providing methods to access specific query parts. A parsed query is immutable, the queries
+ * parsed with {@link #parse(String)} are kept in a bounded cache shared by all the threads.
  */
 public class SoqlQuery {
 
     /**
-     * Parsed query tree
+     * Maximum number of parsed queries kept by the cache, the least recently used one is removed first
      */
-    private QueryContext queryTree;
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<String, SoqlQuery> CACHE = new LinkedHashMap<String, SoqlQuery>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, SoqlQuery> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The lexer and the parser of each thread, reused for all its queries
+     */
+    private static final ThreadLocal<SoqlParser> PARSER = ThreadLocal.withInitial(() -> {
+        final SoqlLexer lexer = new SoqlLexer(new ANTLRInputStream(""));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new SoqlErrorListener());
+        return new SoqlParser(new CommonTokenStream(lexer));
+    });
+
+    /**
+     * ORDER BY clause, up to the LIMIT or OFFSET clause or the end of the query
+     */
+    private static final Pattern ORDER_BY_PATTERN =
+            Pattern.compile("\\s+ORDER\\s+BY\\s.*?(?=\\s+LIMIT\\s|\\s+OFFSET\\s|$)",
+                    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern WHERE_PATTERN = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * The clauses following the WHERE clause
+     */
+    private static final Pattern CLAUSE_AFTER_WHERE_PATTERN = Pattern.compile(
+            "\\s+(WITH|GROUP\\s+BY|ORDER\\s+BY|LIMIT|OFFSET|FOR\\s+(VIEW|REFERENCE|UPDATE)"
+                    + "|UPDATE\\s+(TRACKING|VIEWSTAT))\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Parsed query string
+     */
+    private final String queryString;
+
+    /**
+     * Offsets of the top level FROM clause in the query string, from the FROM keyword to the end of the object name
+     */
+    private final int fromStart;
+
+    private final int fromEnd;
 
     /**
      * Driving (main) entity name
      */
-    private String drivingEntityName;
+    private final String drivingEntityName;
 
     /**
      * List of field descriptions
      */
-    private List<FieldDescription> fieldDescriptions;
+    private final List<FieldDescription> fieldDescriptions;
 
-    private static SoqlQuery soqlQueryRef;
-
-    private SoqlQuery() {
+    /**
+     * Parses input <code>queryString</code>, prefer {@link #parse(String)} which reuses the parsed queries
+     *
+     * @param queryString SOQL query
+     */
+    public SoqlQuery(String queryString) {
+        this.queryString = queryString;
+        QueryContext queryTree = parseTree(queryString);
+        FieldRetrieverListener listener = new FieldRetrieverListener();
+        ParseTreeWalker.DEFAULT.walk(listener, queryTree);
+        this.fromStart = queryTree.fromClause().getStart().getStartIndex();
+        this.fromEnd = queryTree.fromClause().getStop().getStopIndex() + 1;
+        this.drivingEntityName = listener.drivingEntityName;
+        this.fieldDescriptions = Collections.unmodifiableList(listener.fieldDescriptions);
     }
 
-    public static SoqlQuery getInstance() {
-        if (SoqlQuery.soqlQueryRef == null) {
-            SoqlQuery.soqlQueryRef = new SoqlQuery();
+    /**
+     * Returns the parsed query from the cache, the query is parsed and cached when it is not there
+     *
+     * @param queryString SOQL query
+     * @return parsed query
+     */
+    public static SoqlQuery parse(String queryString) {
+        synchronized (CACHE) {
+            final SoqlQuery cached = CACHE.get(queryString);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // parsed outside of the lock, two threads may parse the same query but they get equivalent values
+        final SoqlQuery soqlQuery = new SoqlQuery(queryString);
+        synchronized (CACHE) {
+            CACHE.put(queryString, soqlQuery);
         }
-        return SoqlQuery.soqlQueryRef;
+        return soqlQuery;
     }
 
     /**
-     * init method parses input <code>queryString</code> and stores is as tree.
-     * Should be invoked right after
-     * {@link org.talend.components.salesforce.soql.SoqlQuery#getInstance()} method
+     * Parses the query with the parser of the current thread. The query is first parsed with the fast SLL prediction,
+     * stopping at the first error, and again with the full LL prediction when it fails. A query failing with LL is
+     * invalid.
      *
      * @param queryString SOQL query
+     * @return parsed query tree
+     * @throws IllegalStateException if the query is invalid
      */
-    public void init(String queryString) {
-        ANTLRInputStream is = new ANTLRInputStream(queryString);
-        SoqlLexer lexer = new SoqlLexer(is);
-        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-        SoqlParser parser = new SoqlParser(tokenStream);
-        queryTree = parser.query();
-        fieldDescriptions = new ArrayList<>();
-        FieldRetrieverListener listener = new FieldRetrieverListener();
-        ParseTreeWalker.DEFAULT.walk(listener, queryTree);
+    private static QueryContext parseTree(String queryString) {
+        final SoqlParser parser = PARSER.get();
+        final SoqlLexer lexer = (SoqlLexer) parser.getInputStream().getTokenSource();
+        lexer.setInputStream(new ANTLRInputStream(queryString));
+        // a new token stream, the antlr 4.6 stream keeps its end of file state when its token source is replaced
+        final CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        parser.setInputStream(tokenStream);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return parser.query();
+        } catch (ParseCancellationException e) {
+            tokenStream.seek(0);
+            parser.reset();
+            parser.addErrorListener(new SoqlErrorListener());
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return parser.query();
+        }
     }
 
     /**
@@ -90,12 +186,40 @@ public class SoqlQuery {
     }
 
     /**
-     * Sets driving (main) entity name
+     * Returns a query counting the records of the query: the FROM and WHERE clauses of the query with a COUNT() select
+     * clause and without ORDER BY clause, e.g. "SELECT COUNT() FROM Account WHERE Name LIKE 'A%' LIMIT 100" for
+     * "SELECT Id, Name FROM Account WHERE Name LIKE 'A%' ORDER BY Name LIMIT 100"
      *
-     * @param drivingEntityName entity name to set
+     * @return count query
      */
-    private void setDrivingEntityName(String drivingEntityName) {
-        this.drivingEntityName = drivingEntityName;
+    public String getCountQuery() {
+        final String from = queryString.substring(fromStart);
+        return "SELECT COUNT() " + ORDER_BY_PATTERN.matcher(from).replaceFirst("").trim();
+    }
+
+    /**
+     * Returns the query with a condition added to its WHERE clause, e.g.
+     * "SELECT Id FROM Account WHERE SystemModstamp > 2018-01-01T00:00:00.000Z AND (Name LIKE 'A%') LIMIT 100" for
+     * "SELECT Id FROM Account WHERE Name LIKE 'A%' LIMIT 100" and "SystemModstamp > 2018-01-01T00:00:00.000Z"
+     *
+     * @param condition SOQL condition expression
+     * @return query with the condition
+     */
+    public String addCondition(String condition) {
+        final String tail = queryString.substring(fromEnd);
+        final Matcher where = WHERE_PATTERN.matcher(tail);
+        final Matcher clause = CLAUSE_AFTER_WHERE_PATTERN.matcher(tail);
+        final StringBuilder query = new StringBuilder(queryString.substring(0, fromEnd));
+        if (where.find()) {
+            final int end = clause.find(where.end()) ? clause.start() : tail.length();
+            query.append(tail, 0, where.end()).append(' ').append(condition)
+                    .append(" AND (").append(tail.substring(where.end(), end).trim()).append(')')
+                    .append(tail, end, tail.length());
+        } else {
+            final int end = clause.find() ? clause.start() : tail.length();
+            query.append(tail, 0, end).append(" WHERE ").append(condition).append(tail, end, tail.length());
+        }
+        return query.toString();
     }
 
     /**
@@ -111,13 +235,17 @@ public class SoqlQuery {
      * Listener which retrieves fields and corresponding SOQL objects (objects where particular field is stored) from
      * SOQL query
      */
-    private class FieldRetrieverListener extends SoqlBaseListener {
+    private static class FieldRetrieverListener extends SoqlBaseListener {
 
         /**
          * Special part, which should be added for full colomn names if it comed from select subquery
          */
         private static final String RECORDS = "_records_";
 
+        private String drivingEntityName;
+
+        private final List<FieldDescription> fieldDescriptions = new ArrayList<>();
+
         /**
          * Retrieves fields and SOQL objects from top level query (not including subqueries)
          */
@@ -131,7 +259,7 @@ public class SoqlQuery {
             FromClauseContext fromClause = queryContext.fromClause();
             ObjectContext soqlObject = fromClause.object();
             String entityName = soqlObject.getText();
-            setDrivingEntityName(entityName);
+            drivingEntityName = entityName;
 
             for (FieldContext field : fields) {
                 String simpleName = buildSimpleName(field);
@@ -1,4 +1,10 @@
 // Generated from Soql.g4 by ANTLR 4.6
+//
+// WARNING: edited by hand after the generation, Soql.g4 is not in this repository.
+// The loop of the relationship fields in objectPrefix() decides on NAME DOT instead of
+// getInterpreter().adaptivePredict(_input, 7, _ctx), which read the query up to its end at each
+// relationship field and made the parse quadratic in the number of fields.
+// Apply the same edit when this file is generated again, SoqlQueryTest.wideQueryLookaheadIsLinear fails otherwise.
 
 package org.talend.components.salesforce.soql.parser;
 
@@ -691,7 +697,9 @@ public class SoqlParser extends Parser {
 					}
 					setState(75);
 					_errHandler.sync(this);
-					_alt = getInterpreter().adaptivePredict(_input, 7, _ctx);
+					// loop while a NAME DOT pair follows. The predicted decision (7) reaches the anything* of the
+					// subqueries through the global follow and reads the query up to its end at each prefix.
+					_alt = _input.LA(1) == NAME && _input.LA(2) == DOT ? 1 : 2;
 				} while (_alt != 2 && _alt != org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER);
 			}
 		} catch (RecognitionException re) {
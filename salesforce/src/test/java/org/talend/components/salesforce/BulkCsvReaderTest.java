@@ -0,0 +1,77 @@
+package org.talend.components.salesforce;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BulkCsvReaderTest {
+
+    @Test
+    void quotedValues() throws IOException {
+        final List<String[]> records = readAll(
+                "\"Id\",\"Name\",\"Amount\"\r\n\"1\",\"a, \"\"quoted\"\" name\",\"\"\r\n\r\n\"2\",\"two\nlines\",\n",
+                BulkCsvReader.DEFAULT_BUFFER_SIZE, true);
+        assertArrayEquals(new String[] { "Id", "Name", "Amount" }, records.get(0));
+        assertArrayEquals(new String[] { "1", "a, \"quoted\" name", "" }, records.get(1));
+        assertArrayEquals(new String[] { "2", "two\nlines", "" }, records.get(2));
+        assertFalse(records.size() > 3);
+    }
+
+    @Test
+    void recordsLongerThanTheBuffer() throws IOException {
+        final StringBuilder csv = new StringBuilder();
+        final StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longValue.append("été 😀 \"\"");
+        }
+        for (int i = 0; i < 50; i++) {
+            csv.append('"').append(i).append("\",\"").append(longValue).append("\",unquoted\n");
+        }
+        final List<String[]> records = readAll(csv.toString(), 7, false);
+        final String expected = longValue.toString().replace("\"\"", "\"");
+        for (int i = 0; i < 50; i++) {
+            assertArrayEquals(new String[] { String.valueOf(i), expected, "unquoted" }, records.get(i));
+        }
+    }
+
+    @Test
+    void safetySwitch() throws IOException {
+        final StringBuilder value = new StringBuilder("\"");
+        for (int i = 0; i <= BulkCsvReader.MAX_COLUMN_LENGTH; i++) {
+            value.append('x');
+        }
+        final String csv = value.append("\"\n").toString();
+        assertThrows(IOException.class, () -> readAll(csv, BulkCsvReader.DEFAULT_BUFFER_SIZE, true));
+
+        final BulkCsvReader reader = new BulkCsvReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        reader.setSafetySwitch(false);
+        assertTrue(reader.readRecord());
+        assertTrue(reader.get(0).length() > BulkCsvReader.MAX_COLUMN_LENGTH);
+        assertFalse(reader.readRecord());
+    }
+
+    private List<String[]> readAll(final String csv, final int bufferSize, final boolean direct)
+            throws IOException {
+        final List<String[]> records = new ArrayList<>();
+        try (final BulkCsvReader reader = new BulkCsvReader(
+                Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))), bufferSize,
+                direct)) {
+            while (reader.readRecord()) {
+                records.add(reader.getValues());
+            }
+            assertFalse(reader.readRecord());
+        }
+        return records;
+    }
+}
@@ -0,0 +1,78 @@
+package org.talend.components.salesforce;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+class BulkResultQueueTest {
+
+    private final JsonBuilderFactory factory = Json.createBuilderFactory(null);
+
+    @Test
+    void readAllFilesInFileOrder() {
+        final List<String> files = new ArrayList<>();
+        for (int f = 0; f < 6; f++) {
+            final StringBuilder csv = new StringBuilder();
+            for (int i = 0; i < 500; i++) {
+                csv.append('"').append(f).append("\",\"").append(i).append("\"\n");
+            }
+            files.add(csv.toString());
+        }
+        final Iterator<String> source = files.iterator();
+        final Map<String, Integer> lastRecords = new HashMap<>();
+        int count = 0;
+        try (final BulkResultQueue queue = new BulkResultQueue(() -> {
+            synchronized (source) {
+                return source.hasNext() ? resultSet(source.next()) : null;
+            }
+        }, 3, 10)) {
+            queue.start();
+            JsonObject record;
+            while ((record = queue.next()) != null) {
+                final int index = Integer.parseInt(record.getString("Index"));
+                final Integer previous = lastRecords.put(record.getString("File"), index);
+                assertEquals(previous == null ? 0 : previous + 1, index);
+                count++;
+            }
+        }
+        assertEquals(3000, count);
+        assertEquals(6, lastRecords.size());
+    }
+
+    @Test
+    void failAfterTheDownloadedRecords() {
+        final Iterator<String> source = asList("\"a\",\"1\"\n", null).iterator();
+        try (final BulkResultQueue queue = new BulkResultQueue(() -> {
+            final String csv = source.next();
+            if (csv == null) {
+                throw new IllegalStateException("download failed");
+            }
+            return resultSet(csv);
+        }, 1, 10)) {
+            queue.start();
+            assertEquals("a", queue.next().getString("File"));
+            assertEquals("download failed", assertThrows(IllegalStateException.class, queue::next).getMessage());
+            assertNull(queue.next());
+        }
+    }
+
+    private BulkResultSet resultSet(final String csv) {
+        return new BulkResultSet(new BulkCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))),
+                asList("File", "Index"), factory);
+    }
+}
@@ -0,0 +1,38 @@
+package org.talend.components.salesforce;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+class BulkResultSetTest {
+
+    @Test
+    void relationshipAndDuplicateFields() {
+        final String csv = "\"b\",\"x\",\"a\",\"y\"\n\"c\",\"\",\"d\"\n";
+        final BulkResultSet resultSet = new BulkResultSet(
+                new BulkCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))),
+                asList("Name", "Account.Name", "Id", "NAME"), Json.createBuilderFactory(null));
+
+        final JsonObject first = resultSet.next();
+        // sorted case insensitively, the first casing and the last value of duplicated fields are kept
+        assertEquals(asList("Account_Name", "Id", "Name"), new ArrayList<>(first.keySet()));
+        assertEquals("x", first.getString("Account_Name"));
+        assertEquals("a", first.getString("Id"));
+        assertEquals("y", first.getString("Name"));
+
+        final JsonObject second = resultSet.next(); // short row
+        assertEquals(asList("Account_Name", "Id"), new ArrayList<>(second.keySet()));
+        assertEquals("", second.getString("Account_Name"));
+
+        assertNull(resultSet.next());
+    }
+}
@@ -0,0 +1,117 @@
+package org.talend.components.salesforce;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class BulkResultSpoolTest {
+
+    @Test
+    void spooledFilesAreDeletedOnceRead() throws Exception {
+        for (boolean compress : new boolean[] { false, true }) {
+            final Path parent = Files.createTempDirectory("salesforce-spool");
+            final String csv = csv(1000);
+            try (final BulkResultSpool spool = new BulkResultSpool(parent, compress, 0)) {
+                final BulkCsvReader reader = new BulkCsvReader(spool.spool("752x00000004CJE", () -> stream(csv)),
+                        BulkResultSpool.READ_BUFFER_SIZE, false);
+                assertEquals(csv.length(), spool.getSpooledBytes());
+                assertEquals(1, countFiles(parent));
+                assertRecords(reader, 1000);
+                reader.close();
+                assertEquals(0, spool.getSpooledBytes());
+                assertEquals(0, countFiles(parent));
+            }
+            try (final Stream<Path> files = Files.list(parent)) {
+                assertFalse(files.findAny().isPresent());
+            }
+        }
+    }
+
+    @Test
+    void quotaReadsTheRestFromTheConnection() throws Exception {
+        final Path parent = Files.createTempDirectory("salesforce-spool");
+        final String csv = csv(10000);
+        try (final BulkResultSpool spool = new BulkResultSpool(parent, false, 1 << 16)) {
+            final BulkCsvReader reader =
+                    new BulkCsvReader(spool.spool("752x00000004CJE", () -> stream(csv)), 1024, false);
+            assertTrue(spool.getSpooledBytes() <= 1 << 16);
+            assertRecords(reader, 10000);
+            reader.close();
+            assertEquals(0, spool.getSpooledBytes());
+        }
+    }
+
+    @Test
+    void failedDownloadIsRetried() throws Exception {
+        final Path parent = Files.createTempDirectory("salesforce-spool");
+        final String csv = csv(100);
+        final AtomicInteger downloads = new AtomicInteger();
+        try (final BulkResultSpool spool = new BulkResultSpool(parent, false, 0)) {
+            final BulkCsvReader reader = new BulkCsvReader(spool.spool("752x00000004CJE",
+                    () -> downloads.incrementAndGet() == 1 ? failing(csv) : stream(csv)), 1024, false);
+            assertEquals(2, downloads.get());
+            assertRecords(reader, 100);
+            reader.close();
+
+            assertThrows(IOException.class, () -> spool.spool("752x00000004CJF", () -> failing(csv)));
+            assertEquals(0, spool.getSpooledBytes());
+        }
+    }
+
+    private static String csv(final int records) {
+        final StringBuilder csv = new StringBuilder("\"Id\",\"Name\"\n");
+        for (int i = 0; i < records; i++) {
+            csv.append('"').append(i).append("\",\"name ").append(i).append("\"\n");
+        }
+        return csv.toString();
+    }
+
+    private static void assertRecords(final BulkCsvReader reader, final int records) throws IOException {
+        assertTrue(reader.readRecord());
+        assertArrayEquals(new String[] { "Id", "Name" }, reader.getValues());
+        for (int i = 0; i < records; i++) {
+            assertTrue(reader.readRecord());
+            assertArrayEquals(new String[] { String.valueOf(i), "name " + i }, reader.getValues());
+        }
+        assertFalse(reader.readRecord());
+    }
+
+    private static InputStream stream(final String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream failing(final String csv) {
+        return new FilterInputStream(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8), 0, csv.length() / 2)) {
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                final int read = super.read(b, off, len);
+                if (read < 0) {
+                    throw new IOException("Connection reset");
+                }
+                return read;
+            }
+        };
+    }
+
+    private static long countFiles(final Path parent) throws IOException {
+        try (final Stream<Path> files = Files.walk(parent)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
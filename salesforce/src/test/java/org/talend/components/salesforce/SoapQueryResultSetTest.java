@@ -0,0 +1,82 @@
+package org.talend.components.salesforce;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.QueryResult;
+import com.sforce.soap.partner.sobject.SObject;
+import com.sforce.ws.ConnectionException;
+import com.sforce.ws.ConnectorConfig;
+
+class SoapQueryResultSetTest {
+
+    @Test
+    void recordsHaveTheShapeOfTheBulkRecords() throws ConnectionException {
+        final SObject account = new SObject("Account");
+        account.setId(null); // not selected
+        account.setField("Name", "Acme");
+        final SObject withAccount = new SObject("Contact");
+        withAccount.setId(null);
+        withAccount.setField("Name", "Bob");
+        withAccount.setField("Email", null);
+        withAccount.setField("Account", account);
+        final SObject withoutAccount = new SObject("Contact");
+        withoutAccount.setId(null);
+        withoutAccount.setField("Name", "Alice");
+        withoutAccount.setField("Email", "alice@example.com");
+        withoutAccount.setField("Account", null);
+
+        final SoapQueryResultSet resultSet = new SoapQueryResultSet(
+                connection(withAccount, withoutAccount), "SELECT Name, Email, Account.Name FROM Contact",
+                asList("Name", "Email", "Account_Name"), 200, Json.createBuilderFactory(null));
+
+        final JsonObject first = resultSet.next();
+        assertEquals(asList("Account_Name", "Email", "Name"), asList(first.keySet().toArray()));
+        assertEquals("Acme", first.getString("Account_Name"));
+        assertEquals("", first.getString("Email"));
+        assertEquals("Bob", first.getString("Name"));
+        final JsonObject second = resultSet.next();
+        assertEquals(asList("Account_Name", "Email", "Name"), asList(second.keySet().toArray()));
+        assertEquals("", second.getString("Account_Name"));
+        assertEquals("alice@example.com", second.getString("Email"));
+        assertNull(resultSet.next());
+    }
+
+    @Test
+    void selectedId() throws ConnectionException {
+        final SObject contact = new SObject("Contact");
+        contact.setId("003x0000000001");
+        contact.setField("Name", "Bob");
+
+        final SoapQueryResultSet resultSet = new SoapQueryResultSet(connection(contact),
+                "SELECT Id, Name FROM Contact", asList("Id", "Name"), 200, Json.createBuilderFactory(null));
+
+        final JsonObject record = resultSet.next();
+        assertEquals("003x0000000001", record.getString("Id"));
+        assertEquals("Bob", record.getString("Name"));
+        assertNull(resultSet.next());
+    }
+
+    private static PartnerConnection connection(final SObject... records) throws ConnectionException {
+        final ConnectorConfig config = new ConnectorConfig();
+        config.setSessionId("00Dx0000000000A");
+        config.setServiceEndpoint("https://localhost/services/Soap/u/42.0/00Dx0000000000A");
+        return new PartnerConnection(config) {
+
+            @Override
+            public QueryResult query(final String queryString) {
+                final QueryResult result = new QueryResult();
+                result.setRecords(records);
+                result.setDone(true);
+                return result;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package org.talend.components.salesforce.input;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class IncrementalFieldTest {
+
+    @Test
+    void selectedField() {
+        assertTrue(InputEmitter.isSelected("SELECT Id, SystemModstamp FROM Account", "SystemModstamp"));
+        assertTrue(InputEmitter.isSelected("SELECT Id, systemmodstamp FROM Account", "SystemModstamp"));
+        assertTrue(InputEmitter.isSelected("SELECT Id, Account.LastModifiedDate FROM Contact",
+                "Account.LastModifiedDate"));
+    }
+
+    @Test
+    void notSelectedField() {
+        assertFalse(InputEmitter.isSelected("SELECT Id, Name FROM Account", "SystemModstamp"));
+        assertFalse(InputEmitter.isSelected("SELECT Id FROM Account WHERE SystemModstamp > 2018-01-01T00:00:00Z",
+                "SystemModstamp"));
+    }
+}
@@ -0,0 +1,43 @@
+package org.talend.components.salesforce.input;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.talend.components.salesforce.dataset.QueryDataSet;
+import org.talend.components.salesforce.service.ModuleField;
+
+class ModuleSelectionTest {
+
+    private static final ModuleField NAME = new ModuleField("Name", "string", null, 80, false);
+
+    private static final ModuleField FORMULA = new ModuleField("Total__c", "currency", null, 0, true);
+
+    private static final ModuleField BODY = new ModuleField("Body", "base64", null, 0, false);
+
+    private static final ModuleField DESCRIPTION = new ModuleField("Description", "textarea", null, 32000, false);
+
+    private static final ModuleField COMMENT = new ModuleField("Comment__c", "textarea", null, 255, false);
+
+    @Test
+    void excludeOnlyTheBase64FieldsByDefault() {
+        final QueryDataSet dataset = new QueryDataSet();
+        assertTrue(InputEmitter.isExcluded(BODY, dataset));
+        assertFalse(InputEmitter.isExcluded(NAME, dataset));
+        assertFalse(InputEmitter.isExcluded(FORMULA, dataset));
+        assertFalse(InputEmitter.isExcluded(DESCRIPTION, dataset));
+    }
+
+    @Test
+    void excludeFormulasAndLongTextAreas() {
+        final QueryDataSet dataset = new QueryDataSet();
+        dataset.setExcludeFormulaFields(true);
+        dataset.setExcludeLongTextAreas(true);
+        assertTrue(InputEmitter.isExcluded(FORMULA, dataset));
+        assertTrue(InputEmitter.isExcluded(DESCRIPTION, dataset));
+        assertFalse(InputEmitter.isExcluded(COMMENT, dataset));
+        assertFalse(InputEmitter.isExcluded(NAME, dataset));
+        dataset.setMaxTextAreaLength(100);
+        assertTrue(InputEmitter.isExcluded(COMMENT, dataset));
+    }
+}
@@ -0,0 +1,122 @@
+package org.talend.components.salesforce.input;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.talend.components.salesforce.dataset.QueryDataSet;
+import org.talend.components.salesforce.datastore.BasicDataStore;
+import org.talend.components.salesforce.service.BasicDatastoreService;
+import org.talend.components.salesforce.service.BulkQueryService;
+import org.talend.components.salesforce.service.FakeBulkConnection;
+import org.talend.components.salesforce.service.PollingScheduler;
+import org.talend.sdk.component.api.service.configuration.LocalConfiguration;
+
+import com.sforce.async.BatchStateEnum;
+import com.sforce.async.BulkConnection;
+
+class PartitionedInputMapperTest {
+
+    private static final long CHUNK = BulkQueryService.DEFAULT_CHUNK_SIZE;
+
+    private FakeBulkConnection connection;
+
+    private PartitionedInputMapper mapper;
+
+    @BeforeEach
+    void createMapper() throws Exception {
+        connection = new FakeBulkConnection(Calendar.getInstance()).batch(FakeBulkConnection.QUERY_BATCH_ID,
+                BatchStateEnum.NotProcessed);
+        for (int i = 1; i <= 5; i++) {
+            connection.batch("751x0000000000" + i, BatchStateEnum.Completed).result("751x0000000000" + i,
+                    "752x0000000000" + i, "\"Id\"\n\"001x" + i + "\"\n");
+        }
+        final QueryDataSet dataset = new QueryDataSet();
+        dataset.setQuery("SELECT Id FROM Account");
+        final BasicDatastoreService service = new BasicDatastoreService() {
+
+            @Override
+            public BulkConnection bulkConnect(final BasicDataStore datastore,
+                    final LocalConfiguration configuration) {
+                return connection;
+            }
+
+            @Override
+            public PollingScheduler createPollingScheduler(final LocalConfiguration configuration) {
+                return progress -> 1;
+            }
+        };
+        mapper = new PartitionedInputMapper(dataset, service, null, new LocalConfiguration() {
+
+            @Override
+            public String get(final String key) {
+                return null;
+            }
+
+            @Override
+            public Set<String> keys() {
+                return emptySet();
+            }
+        }, Json.createBuilderFactory(null), FakeBulkConnection.messages());
+    }
+
+    @Test
+    void batchesGroupedByPartitionSize() {
+        assertEquals(5 * CHUNK, mapper.estimateSize());
+        assertEquals(asList(2 * CHUNK, 2 * CHUNK, CHUNK), sizes(mapper.split(2 * CHUNK)));
+        assertEquals(asList(2 * CHUNK, 2 * CHUNK, CHUNK), sizes(mapper.split(2 * CHUNK + CHUNK / 2)));
+        assertEquals(asList(CHUNK, CHUNK, CHUNK, CHUNK, CHUNK), sizes(mapper.split(0)));
+        assertEquals(asList(5 * CHUNK), sizes(mapper.split(100 * CHUNK)));
+    }
+
+    @Test
+    void jobCreatedOnce() {
+        mapper.estimateSize();
+        final List<PartitionedInputMapper> partitions = mapper.split(2 * CHUNK);
+        partitions.forEach(PartitionedInputMapper::estimateSize);
+        partitions.forEach(partition -> assertEquals(1, partition.split(CHUNK).size()));
+        partitions.forEach(PartitionedInputMapper::createWorker);
+        mapper.createWorker();
+        assertEquals(1, connection.createdJobs.get());
+    }
+
+    @Test
+    void workersReadTheirOwnBatches() {
+        final List<List<String>> ids = new ArrayList<>();
+        for (PartitionedInputMapper partition : mapper.split(2 * CHUNK)) {
+            ids.add(read(partition.createWorker()));
+        }
+        assertEquals(asList(asList("001x1", "001x2"), asList("001x3", "001x4"), asList("001x5")), ids);
+        assertEquals(1, connection.createdJobs.get());
+    }
+
+    private static List<Long> sizes(final List<PartitionedInputMapper> mappers) {
+        return mappers.stream().map(PartitionedInputMapper::estimateSize).collect(toList());
+    }
+
+    private static List<String> read(final InputEmitter emitter) {
+        final List<String> ids = new ArrayList<>();
+        emitter.init();
+        try {
+            JsonObject record;
+            while ((record = emitter.next()) != null) {
+                ids.add(record.getString("Id"));
+            }
+        } finally {
+            emitter.close();
+        }
+        ids.sort(null);
+        return ids;
+    }
+}
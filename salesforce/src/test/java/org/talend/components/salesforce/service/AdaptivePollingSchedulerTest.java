@@ -0,0 +1,37 @@
+package org.talend.components.salesforce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptivePollingSchedulerTest {
+
+    private final AdaptivePollingScheduler scheduler = new AdaptivePollingScheduler(500, 30_000, 0);
+
+    @Test
+    void fractionOfTheElapsedTime() {
+        assertEquals(500, scheduler.nextDelay(new PollProgress(0, 0, 0, 0)));
+        assertEquals(2_500, scheduler.nextDelay(new PollProgress(5, 10_000, 0, 0)));
+        assertEquals(30_000, scheduler.nextDelay(new PollProgress(20, 600_000, 0, 0)));
+    }
+
+    @Test
+    void remainingTimeFromTheProcessingRate() {
+        // 40k of 100k records in 20s, 60k left at 2k/s
+        assertEquals(30_000, scheduler.nextDelay(new PollProgress(3, 20_000, 40_000, 100_000)));
+        assertEquals(5_000, scheduler.nextDelay(new PollProgress(3, 20_000, 80_000, 100_000)));
+        assertEquals(500, scheduler.nextDelay(new PollProgress(3, 20_000, 100_000, 100_000)));
+    }
+
+    @Test
+    void jitterStaysInTheBounds() {
+        final AdaptivePollingScheduler jittered = new AdaptivePollingScheduler(1_000, 10_000, 0.5);
+        for (int i = 0; i < 100; i++) {
+            final long delay = jittered.nextDelay(new PollProgress(1, 8_000, 0, 0));
+            assertTrue(delay >= 1_000 && delay <= 3_000, String.valueOf(delay));
+            final long ceiling = jittered.nextDelay(new PollProgress(1, 80_000, 0, 0));
+            assertTrue(ceiling >= 5_000 && ceiling <= 10_000, String.valueOf(ceiling));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.talend.components.salesforce.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.talend.components.salesforce.BulkJobCheckpoint;
+
+class BulkJobCheckpointStoreTest {
+
+    @Test
+    void saveAndRemove() throws IOException {
+        final Path directory = Files.createTempDirectory("salesforce-bulk-jobs");
+        final String query = "select Id, Name from Account where Name = 'a,b'";
+        final BulkJobCheckpoint checkpoint = new BulkJobCheckpoint(query, "750D00000004SkL");
+        new BulkJobCheckpointStore(directory).save("daily/accounts", checkpoint);
+        BulkJobCheckpoint saved = new BulkJobCheckpointStore(directory).load("daily/accounts");
+        assertEquals(checkpoint, saved);
+        assertNull(saved.getBatchIds());
+
+        saved.setBatchIds(asList("751D00000004YGZ", "751D00000004YGa"));
+        saved.getConsumedResultIds().add("752D00000004CJ1");
+        new BulkJobCheckpointStore(directory).save("daily/accounts", saved);
+        final BulkJobCheckpoint resumed = new BulkJobCheckpointStore(directory).load("daily/accounts");
+        assertEquals(query, resumed.getQuery());
+        assertEquals(asList("751D00000004YGZ", "751D00000004YGa"), resumed.getBatchIds());
+        assertEquals(saved.getConsumedResultIds(), resumed.getConsumedResultIds());
+
+        new BulkJobCheckpointStore(directory).remove("daily/accounts");
+        assertNull(new BulkJobCheckpointStore(directory).load("daily/accounts"));
+    }
+}
@@ -0,0 +1,139 @@
+package org.talend.components.salesforce.service;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.json.Json;
+
+import org.junit.jupiter.api.Test;
+
+import com.sforce.async.BatchStateEnum;
+
+class BulkQueryServiceTest {
+
+    @Test
+    void reattachToAnOldJob() throws Exception {
+        final Calendar created = Calendar.getInstance();
+        created.add(Calendar.MINUTE, -30);
+        final FakeBulkConnection connection = new FakeBulkConnection(created)
+                .batch("751x00000000001", BatchStateEnum.InProgress, BatchStateEnum.InProgress,
+                        BatchStateEnum.Completed)
+                .result("751x00000000001", "752x00000000001", "\"Id\"\n\"001x1\"\n");
+        final BulkQueryService service = service(connection);
+        service.readBatches(FakeBulkConnection.JOB_ID, singletonList("751x00000000001"), emptySet());
+
+        assertEquals("752x00000000001", service.nextResultId());
+        assertNull(service.nextResultId());
+        assertEquals(3, connection.batchListPolls.get());
+    }
+
+    @Test
+    void batchStillPendingAfterTheTimeout() throws Exception {
+        final FakeBulkConnection connection = new FakeBulkConnection(Calendar.getInstance())
+                .batch("751x00000000001", BatchStateEnum.Completed)
+                .result("751x00000000001", "752x00000000001", "\"Id\"\n\"001x1\"\n")
+                .batch("751x00000000002", BatchStateEnum.InProgress);
+        final BulkQueryService service = service(connection);
+        service.setBatchTimeout(50);
+        service.readBatches(FakeBulkConnection.JOB_ID, asList("751x00000000001", "751x00000000002"));
+
+        assertEquals("752x00000000001", service.nextResultId());
+        final IllegalStateException error = assertThrows(IllegalStateException.class, service::nextResultId);
+        assertEquals("errorBatchTimeout", error.getMessage());
+    }
+
+    @Test
+    void resultsInTheCompletionOrderOfTheBatches() throws Exception {
+        final FakeBulkConnection connection = new FakeBulkConnection(Calendar.getInstance())
+                .batch("751x00000000001", BatchStateEnum.Queued, BatchStateEnum.InProgress,
+                        BatchStateEnum.InProgress, BatchStateEnum.Completed)
+                .result("751x00000000001", "752x00000000001", "\"Id\"\n\"001x1\"\n")
+                .batch("751x00000000002", BatchStateEnum.Completed)
+                .result("751x00000000002", "752x00000000002", "\"Id\"\n\"001x2\"\n")
+                .batch("751x00000000003", BatchStateEnum.InProgress, BatchStateEnum.Completed)
+                .result("751x00000000003", "752x00000000003", "\"Id\"\n\"001x3\"\n")
+                .result("751x00000000003", "752x00000000004", "\"Id\"\n\"001x4\"\n");
+        final BulkQueryService service = service(connection);
+        service.readBatches(FakeBulkConnection.JOB_ID,
+                asList("751x00000000001", "751x00000000002", "751x00000000003"));
+
+        assertEquals("752x00000000002", service.nextResultId());
+        assertEquals("752x00000000003", service.nextResultId());
+        assertEquals("752x00000000004", service.nextResultId());
+        assertEquals("752x00000000001", service.nextResultId());
+        assertNull(service.nextResultId());
+        assertEquals(4, connection.batchListPolls.get());
+    }
+
+    @Test
+    void resultsHandedOutBeforeTheLastBatchCompletes() throws Exception {
+        final AtomicReference<BatchStateEnum> lastBatch = new AtomicReference<>(BatchStateEnum.InProgress);
+        final FakeBulkConnection connection = new FakeBulkConnection(Calendar.getInstance())
+                .batch("751x00000000001", BatchStateEnum.Completed)
+                .result("751x00000000001", "752x00000000001", "\"Id\"\n\"001x1\"\n")
+                .batch("751x00000000002", lastBatch::get)
+                .result("751x00000000002", "752x00000000002", "\"Id\"\n\"001x2\"\n");
+        final BulkQueryService service = service(connection);
+        service.readBatches(FakeBulkConnection.JOB_ID, asList("751x00000000001", "751x00000000002"));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertEquals("752x00000000001", service.nextResultId());
+            assertEquals(BatchStateEnum.InProgress, lastBatch.get());
+            lastBatch.set(BatchStateEnum.Completed);
+            assertEquals("752x00000000002", service.nextResultId());
+            assertNull(service.nextResultId());
+        });
+    }
+
+    @Test
+    void failedBatchReportedAfterTheEarlierResults() throws Exception {
+        for (BatchStateEnum state : new BatchStateEnum[] { BatchStateEnum.Failed, BatchStateEnum.NotProcessed }) {
+            final FakeBulkConnection connection = new FakeBulkConnection(Calendar.getInstance())
+                    .batch("751x00000000001", BatchStateEnum.Completed)
+                    .result("751x00000000001", "752x00000000001", "\"Id\"\n\"001x1\"\n")
+                    .batch("751x00000000002", BatchStateEnum.InProgress, state)
+                    .result("751x00000000002", "752x00000000002", "\"Id\"\n\"001x2\"\n");
+            final BulkQueryService service = service(connection);
+            service.readBatches(FakeBulkConnection.JOB_ID, asList("751x00000000001", "751x00000000002"));
+
+            assertEquals("752x00000000001", service.nextResultId());
+            final IllegalStateException error = assertThrows(IllegalStateException.class, service::nextResultId);
+            assertEquals("ERROR_IN_BULK_QUERY_PROCESSING: batch 751x00000000002 is " + state, error.getMessage());
+            // the other readers see the end of the results
+            assertNull(service.nextResultId());
+        }
+    }
+
+    @Test
+    void closeStopsThePolling() throws Exception {
+        final FakeBulkConnection connection = new FakeBulkConnection(Calendar.getInstance())
+                .batch("751x00000000001", BatchStateEnum.InProgress);
+        final BulkQueryService service = service(connection);
+        service.readBatches(FakeBulkConnection.JOB_ID, singletonList("751x00000000001"));
+        while (connection.batchListPolls.get() < 3) {
+            Thread.sleep(1);
+        }
+
+        service.close();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertNull(service.nextResultId()));
+        final int polls = connection.batchListPolls.get();
+        Thread.sleep(50);
+        assertEquals(polls, connection.batchListPolls.get());
+    }
+
+    private static BulkQueryService service(final FakeBulkConnection connection) {
+        final BulkQueryService service =
+                new BulkQueryService(connection, Json.createBuilderFactory(null), FakeBulkConnection.messages());
+        service.setPollingScheduler(progress -> 1);
+        return service;
+    }
+}
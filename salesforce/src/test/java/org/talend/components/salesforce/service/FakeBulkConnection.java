@@ -0,0 +1,150 @@
+package org.talend.components.salesforce.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.async.BatchInfo;
+import com.sforce.async.BatchInfoList;
+import com.sforce.async.BatchStateEnum;
+import com.sforce.async.BulkConnection;
+import com.sforce.async.JobInfo;
+import com.sforce.async.JobStateEnum;
+import com.sforce.async.QueryResultList;
+import com.sforce.ws.ConnectorConfig;
+
+/**
+ * A bulk connection answering from batches declared by the test, each poll of a batch returns its next state.
+ */
+public class FakeBulkConnection extends BulkConnection {
+
+    public static final String JOB_ID = "750x00000000001";
+
+    public static final String QUERY_BATCH_ID = "751x00000000000";
+
+    private final JobInfo job = new JobInfo();
+
+    private final Map<String, Supplier<BatchStateEnum>> batchStates = new LinkedHashMap<>();
+
+    private final Map<String, List<String>> batchResults = new LinkedHashMap<>();
+
+    private final Map<String, String> results = new LinkedHashMap<>();
+
+    public final AtomicInteger createdJobs = new AtomicInteger();
+
+    public final AtomicInteger batchListPolls = new AtomicInteger();
+
+    public FakeBulkConnection(final Calendar jobCreatedDate) throws AsyncApiException {
+        super(config());
+        job.setId(JOB_ID);
+        job.setState(JobStateEnum.Open);
+        job.setCreatedDate(jobCreatedDate);
+    }
+
+    /**
+     * @param states the state returned by each poll of the batch, the last one is returned by the next polls
+     */
+    public FakeBulkConnection batch(final String batchId, final BatchStateEnum... states) {
+        final Deque<BatchStateEnum> remaining = new ArrayDeque<>(Arrays.asList(states));
+        return batch(batchId, () -> remaining.size() > 1 ? remaining.poll() : remaining.peek());
+    }
+
+    public synchronized FakeBulkConnection batch(final String batchId, final Supplier<BatchStateEnum> state) {
+        batchStates.put(batchId, state);
+        batchResults.putIfAbsent(batchId, new ArrayList<>());
+        return this;
+    }
+
+    public synchronized FakeBulkConnection result(final String batchId, final String resultId, final String csv) {
+        batchResults.computeIfAbsent(batchId, id -> new ArrayList<>()).add(resultId);
+        results.put(resultId, csv);
+        return this;
+    }
+
+    @Override
+    public synchronized JobInfo createJob(final JobInfo info) {
+        createdJobs.incrementAndGet();
+        return job;
+    }
+
+    @Override
+    public synchronized BatchInfo createBatchFromStream(final JobInfo info, final InputStream input) {
+        return batchInfo(QUERY_BATCH_ID, 0, BatchStateEnum.Queued);
+    }
+
+    @Override
+    public synchronized JobInfo getJobStatus(final String jobId) {
+        return job;
+    }
+
+    @Override
+    public synchronized BatchInfo getBatchInfo(final String jobId, final String batchId) {
+        return batchInfo(batchId, new ArrayList<>(batchStates.keySet()).indexOf(batchId),
+                batchStates.get(batchId).get());
+    }
+
+    @Override
+    public synchronized BatchInfoList getBatchInfoList(final String jobId) {
+        batchListPolls.incrementAndGet();
+        final List<BatchInfo> batches = new ArrayList<>();
+        int index = 0;
+        for (Map.Entry<String, Supplier<BatchStateEnum>> batch : batchStates.entrySet()) {
+            batches.add(batchInfo(batch.getKey(), index++, batch.getValue().get()));
+        }
+        final BatchInfoList list = new BatchInfoList();
+        list.setBatchInfo(batches.toArray(new BatchInfo[0]));
+        return list;
+    }
+
+    @Override
+    public synchronized QueryResultList getQueryResultList(final String jobId, final String batchId) {
+        final QueryResultList list = new QueryResultList();
+        list.setResult(batchResults.get(batchId).toArray(new String[0]));
+        return list;
+    }
+
+    @Override
+    public synchronized InputStream getQueryResultStream(final String jobId, final String batchId,
+            final String resultId) {
+        return new ByteArrayInputStream(results.get(resultId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private BatchInfo batchInfo(final String batchId, final int index, final BatchStateEnum state) {
+        final BatchInfo info = new BatchInfo();
+        info.setId(batchId);
+        info.setJobId(JOB_ID);
+        info.setState(state);
+        info.setStateMessage("batch " + batchId + " is " + state);
+        final Calendar created = (Calendar) job.getCreatedDate().clone();
+        created.add(Calendar.SECOND, index);
+        info.setCreatedDate(created);
+        return info;
+    }
+
+    /**
+     * @return messages answering the name of the called method
+     */
+    public static Messages messages() {
+        return (Messages) Proxy.newProxyInstance(Messages.class.getClassLoader(), new Class<?>[] { Messages.class },
+                (proxy, method, args) -> method.getName());
+    }
+
+    private static ConnectorConfig config() {
+        final ConnectorConfig config = new ConnectorConfig();
+        config.setRestEndpoint("https://localhost/services/async/42.0");
+        config.setSessionId("00Dx0000000000A");
+        return config;
+    }
+}
@@ -0,0 +1,69 @@
+package org.talend.components.salesforce.service;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sforce.ws.ConnectionException;
+
+class MetadataCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void memory() throws ConnectionException {
+        final MetadataCache cache = new MetadataCache(2, 60_000, null);
+        assertEquals("Account", describe(cache, "org", "Account").getName());
+        describe(cache, "org", "Account");
+        assertEquals(1, loads.get());
+
+        describe(cache, "other", "Account"); // keyed by org
+        describe(cache, "org", "Contact"); // evicts the least recently used one
+        describe(cache, "other", "Account");
+        describe(cache, "org", "Account");
+        assertEquals(4, loads.get());
+
+        cache.invalidate("org", "Account");
+        describe(cache, "org", "Account");
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void timeToLive() throws ConnectionException, InterruptedException {
+        final MetadataCache cache = new MetadataCache(10, 10, null);
+        describe(cache, "org", "Account");
+        Thread.sleep(20);
+        describe(cache, "org", "Account");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void disk() throws ConnectionException, IOException {
+        final Path directory = Files.createTempDirectory("salesforce-metadata");
+        describe(new MetadataCache(10, 60_000, directory), "00D90000000eSq3", "My__c");
+        final ModuleDescription description = describe(new MetadataCache(10, 60_000, directory), "00D90000000eSq3",
+                "My__c");
+        assertEquals(1, loads.get());
+        assertEquals("Name__c", description.getFields().get(0).getName());
+
+        new MetadataCache(10, 60_000, directory).invalidate("00D90000000eSq3", "My__c");
+        describe(new MetadataCache(10, 60_000, directory), "00D90000000eSq3", "My__c");
+        assertEquals(2, loads.get());
+    }
+
+    private ModuleDescription describe(final MetadataCache cache, final String org, final String module)
+            throws ConnectionException {
+        return cache.get(org, module, () -> {
+            loads.incrementAndGet();
+            return new ModuleDescription(module,
+                    new ArrayList<>(singletonList(new ModuleField("Name__c", "string", null, 80, false))));
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package org.talend.components.salesforce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class SessionCacheTest {
+
+    private static final String KEY = SessionCache.key(BasicDatastoreService.URL, "user", "password");
+
+    @Test
+    void reuseUntilTimeToLive() throws InterruptedException {
+        final SessionCache cache = new SessionCache();
+        cache.put(KEY, "session", "https://eu1.salesforce.com/services/Soap/u/42.0/00D");
+        assertEquals("session", cache.get(KEY, 60_000).getSessionId());
+        Thread.sleep(20);
+        assertNull(cache.get(KEY, 10));
+        assertNull(cache.get(KEY, 60_000));
+    }
+
+    @Test
+    void invalidateOnlyTheRejectedSession() {
+        final SessionCache cache = new SessionCache();
+        cache.put(KEY, "renewed", "endpoint");
+        cache.invalidate(KEY, "rejected");
+        assertEquals("renewed", cache.get(KEY, 60_000).getSessionId());
+        cache.invalidate(KEY, "renewed");
+        assertNull(cache.get(KEY, 60_000));
+    }
+
+    @Test
+    void passwordIsPartOfTheKey() {
+        assertNotEquals(KEY, SessionCache.key(BasicDatastoreService.URL, "user", "changed"));
+    }
+}
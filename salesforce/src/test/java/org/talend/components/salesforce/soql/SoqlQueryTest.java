@@ -0,0 +1,128 @@
+package org.talend.components.salesforce.soql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.junit.jupiter.api.Test;
+import org.talend.components.salesforce.soql.parser.SoqlLexer;
+import org.talend.components.salesforce.soql.parser.SoqlParser;
+
+class SoqlQueryTest {
+
+    @Test
+    void parsedQueriesAreCached() {
+        final String query = "SELECT Id, Name FROM Account";
+        final SoqlQuery soqlQuery = SoqlQuery.parse(query);
+        assertSame(soqlQuery, SoqlQuery.parse(new String(query)));
+        assertEquals("Account", soqlQuery.getDrivingEntityName());
+        assertEquals("Contact", SoqlQuery.parse("SELECT Id FROM Contact").getDrivingEntityName());
+        assertEquals("Account", soqlQuery.getDrivingEntityName());
+    }
+
+    @Test
+    void parseConcurrently() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                final String module = "Module" + (i % 50);
+                results.add(executor.submit(() -> module.equals(
+                        SoqlQuery.parse("SELECT Id, Name FROM " + module).getDrivingEntityName())));
+            }
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void parseWideQuery() {
+        final SoqlQuery soqlQuery = new SoqlQuery(wideQuery(800));
+        assertEquals("Account", soqlQuery.getDrivingEntityName());
+        assertEquals(801, soqlQuery.getFieldDescriptions().size());
+        assertEquals("Account_Owner_Field799", soqlQuery.getFieldDescriptions().get(799).getFullName());
+    }
+
+    /**
+     * The relationship field loop of SoqlParser.objectPrefix is decided by hand, see the note on top of the parser: the
+     * generated prediction reads the query up to its end at each relationship field.
+     */
+    @Test
+    void wideQueryLookaheadIsLinear() {
+        final long narrow = countLookahead(wideQuery(100));
+        final long wide = countLookahead(wideQuery(800));
+        assertTrue(wide < 12 * narrow, "8 times more fields read " + wide + " tokens instead of " + narrow);
+    }
+
+    private static long countLookahead(final String query) {
+        final long[] lookahead = new long[1];
+        final SoqlParser parser = new SoqlParser(new CommonTokenStream(new SoqlLexer(new ANTLRInputStream(query))) {
+
+            @Override
+            public int LA(final int i) {
+                lookahead[0]++;
+                return super.LA(i);
+            }
+        });
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.query();
+        return lookahead[0];
+    }
+
+    private static String wideQuery(final int fields) {
+        final StringBuilder query = new StringBuilder("SELECT ");
+        for (int i = 0; i < fields; i++) {
+            query.append(i % 2 == 0 ? "Field" : "Account.Owner.Field").append(i).append(", ");
+        }
+        return query.append("(SELECT Id FROM Contacts) FROM Account WHERE Name = 'x'").toString();
+    }
+
+    @Test
+    void invalidQuery() {
+        assertThrows(IllegalStateException.class, () -> new SoqlQuery("SELECT FROM Account"));
+        assertThrows(IllegalStateException.class, () -> new SoqlQuery("SELECT Id, Name Account"));
+    }
+
+    @Test
+    void countQueryKeepsTheFilters() {
+        assertEquals("SELECT COUNT() FROM Account WHERE Name LIKE 'A%' LIMIT 100",
+                countQuery("SELECT Id, Name FROM Account WHERE Name LIKE 'A%' ORDER BY Name LIMIT 100"));
+        assertEquals("SELECT COUNT() from Contact", countQuery("select Id, Account.Name from Contact order by Id"));
+        assertEquals("SELECT COUNT() FROM Account WHERE Type = 'x'",
+                countQuery("SELECT Id, (SELECT Id FROM Contacts) FROM Account WHERE Type = 'x'"));
+    }
+
+    @Test
+    void addConditionToTheWhereClause() {
+        assertEquals("SELECT Id FROM Account WHERE SystemModstamp > 2018-01-01T00:00:00.000Z AND (Name LIKE 'A%') "
+                + "LIMIT 100", addCondition("SELECT Id FROM Account WHERE Name LIKE 'A%' LIMIT 100"));
+        assertEquals("select Id from Contact WHERE SystemModstamp > 2018-01-01T00:00:00.000Z order by Id",
+                addCondition("select Id from Contact order by Id"));
+        assertEquals("select Id from Contact WHERE SystemModstamp > 2018-01-01T00:00:00.000Z",
+                addCondition("select Id from Contact"));
+    }
+
+    private static String addCondition(final String query) {
+        return SoqlQuery.parse(query).addCondition("SystemModstamp > 2018-01-01T00:00:00.000Z");
+    }
+
+    private static String countQuery(final String query) {
+        return SoqlQuery.parse(query).getCountQuery();
+    }
+}